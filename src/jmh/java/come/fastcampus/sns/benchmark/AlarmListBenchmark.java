@@ -0,0 +1,145 @@
+package come.fastcampus.sns.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 알람 목록 첫 페이지 조회 비용 비교 (MySQL, 알람 1M 건)
+ * - index=user_id_idx : 기존 인덱스. deleted_at 필터를 위해 row 를 읽어야 한다.
+ * - index=user_id_deleted_at_id_idx : (user_id, deleted_at, id DESC) 인덱스 순서대로 읽고 LIMIT 에서 멈춘다.
+ * - entity : 엔티티 조회처럼 모든 컬럼 / projection : AlarmResponse 에 필요한 컬럼만
+ *
+ * 실행 : ./gradlew jmh -Dbenchmark.jdbc-url=jdbc:mysql://localhost:3306/sns -Dbenchmark.jdbc-user=... -Dbenchmark.jdbc-password=...
+ * 운영 테이블 대신 alarm_benchmark 테이블을 만들어 (없거나 비어있을 때만) 채운다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AlarmListBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int USERS = 1_000;
+    // 조회 대상 유저 : 전체 알람의 10% 를 받고, 그 중 절반은 soft delete 되어 있다.
+    private static final int HOT_USER_ID = 1;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"user_id_idx", "user_id_deleted_at_id_idx"})
+    private String index;
+
+    private Connection connection;
+    private PreparedStatement entity;
+    private PreparedStatement projection;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc-url", "jdbc:mysql://localhost:3306/sns?rewriteBatchedStatements=true"),
+                System.getProperty("benchmark.jdbc-user", "root"),
+                System.getProperty("benchmark.jdbc-password", ""));
+        seed();
+        useIndex();
+
+        entity = connection.prepareStatement(
+                "SELECT id, user_id, alarm_type, args, target_id, actor_count, latest_actor_ids, registered_at, updated_at, deleted_at " +
+                        "FROM alarm_benchmark WHERE user_id = ? AND deleted_at IS NULL ORDER BY id DESC LIMIT " + PAGE_SIZE);
+        projection = connection.prepareStatement(
+                "SELECT id, alarm_type, args, actor_count, latest_actor_ids, registered_at, updated_at, deleted_at " +
+                        "FROM alarm_benchmark WHERE user_id = ? AND deleted_at IS NULL ORDER BY id DESC LIMIT " + PAGE_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void entity(Blackhole blackhole) throws SQLException {
+        read(entity, blackhole);
+    }
+
+    @Benchmark
+    public void projection(Blackhole blackhole) throws SQLException {
+        read(projection, blackhole);
+    }
+
+    private void read(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        statement.setInt(1, HOT_USER_ID);
+        try (ResultSet rs = statement.executeQuery()) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                for (int i = 1; i <= columns; i++) {
+                    blackhole.consume(rs.getObject(i));
+                }
+            }
+        }
+    }
+
+    private void seed() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS alarm_benchmark (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY, user_id INT, alarm_type VARCHAR(255), args JSON, target_id INT, " +
+                    "actor_count INT DEFAULT 1 NOT NULL, latest_actor_ids JSON, " +
+                    "registered_at DATETIME(6), updated_at DATETIME(6), deleted_at DATETIME(6))");
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM alarm_benchmark")) {
+                rs.next();
+                if (rs.getLong(1) >= ROWS) {
+                    return;
+                }
+            }
+            statement.execute("TRUNCATE TABLE alarm_benchmark");
+        }
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO alarm_benchmark (user_id, alarm_type, args, target_id, latest_actor_ids, registered_at, deleted_at) " +
+                        "VALUES (?, 'NEW_COMMENT_ON_POST', ?, ?, ?, NOW(6), ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                int userId = i % 10 == 0 ? HOT_USER_ID : 2 + i % (USERS - 1);
+                int fromUserId = 2 + (i * 7) % (USERS - 1);
+                insert.setInt(1, userId);
+                insert.setString(2, String.format("{\"fromUserId\":%d,\"targetId\":%d}", fromUserId, i));
+                insert.setInt(3, i);
+                insert.setString(4, String.format("[%d]", fromUserId));
+                // 오래된 알람일수록 지워져 있다고 가정 : 앞쪽 절반은 soft delete
+                insert.setTimestamp(5, i < ROWS / 2 ? new Timestamp(System.currentTimeMillis()) : null);
+                insert.addBatch();
+                if ((i + 1) % 10_000 == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private void useIndex() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            dropIndexIfExists(statement, "user_id_idx");
+            dropIndexIfExists(statement, "user_id_deleted_at_id_idx");
+            if ("user_id_idx".equals(index)) {
+                statement.execute("CREATE INDEX user_id_idx ON alarm_benchmark (user_id)");
+            } else {
+                statement.execute("CREATE INDEX user_id_deleted_at_id_idx ON alarm_benchmark (user_id, deleted_at, id DESC)");
+            }
+            statement.execute("ANALYZE TABLE alarm_benchmark");
+        }
+    }
+
+    private void dropIndexIfExists(Statement statement, String name) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(String.format(
+                "SELECT COUNT(*) FROM information_schema.statistics " +
+                        "WHERE table_schema = DATABASE() AND table_name = 'alarm_benchmark' AND index_name = '%s'", name))) {
+            rs.next();
+            if (rs.getLong(1) == 0) {
+                return;
+            }
+        }
+        statement.execute(String.format("DROP INDEX %s ON alarm_benchmark", name));
+    }
+}
@@ -0,0 +1,230 @@
+package come.fastcampus.sns.benchmark;
+
+import come.fastcampus.sns.model.AlarmArgs;
+import come.fastcampus.sns.model.AlarmType;
+import come.fastcampus.sns.model.entity.AlarmEntity;
+import come.fastcampus.sns.model.entity.CommentEntity;
+import come.fastcampus.sns.model.entity.PostEntity;
+import come.fastcampus.sns.model.entity.UserEntity;
+import come.fastcampus.sns.util.SnowflakeIdGenerator;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+
+import javax.persistence.EntityManager;
+import java.sql.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 댓글 / 알람 ROWS 건 insert 비용 비교 (MySQL, rewriteBatchedStatements=true). 모든 변형은 ROWS 건을 한 트랜잭션으로 커밋한다.
+ * - commentIdentity / alarmIdentity : IDENTITY 전략처럼 한 건씩 insert 하고 생성된 id 를 읽는다. (Hibernate 가 batch 로 묶지 못한다)
+ * - commentBatch / alarmBatch : 미리 받은 id (snowflake) 로 jdbc batch 한번에 insert 한다.
+ * - commentEntityManager / alarmEntityManager : 실제 엔티티를 EntityManager.persist 한다. id 는 SnsIdGenerator (pooled),
+ *   jdbcBatchSize=0 이면 hibernate.jdbc.batch_size 를 끈 것, 50 이면 JpaConfig 기본값과 같다.
+ *
+ * 실행 : ./gradlew jmh -Dbenchmark.jdbc-url=jdbc:mysql://localhost:3306/sns -Dbenchmark.jdbc-user=... -Dbenchmark.jdbc-password=...
+ * 운영 테이블 대신 comment_benchmark / alarm_insert_benchmark 테이블을 만들어 쓴다.
+ * EntityManager 변형은 엔티티 테이블을 그대로 만들어야 하므로 별도 DB (benchmark.hibernate-jdbc-url, 기본 sns_benchmark) 에 만들고 지운다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 1_000;
+    private static final String COMMENT_SQL = "INSERT INTO comment_benchmark (%s user_id, post_id, comment, registered_at) VALUES (%s ?, ?, ?, NOW(6))";
+    private static final String ALARM_SQL = "INSERT INTO alarm_insert_benchmark (%s user_id, alarm_type, args, target_id, latest_actor_ids, registered_at) VALUES (%s ?, 'NEW_COMMENT_ON_POST', ?, ?, ?, NOW(6))";
+
+    private Connection connection;
+    private SnowflakeIdGenerator idGenerator;
+
+    @State(Scope.Benchmark)
+    public static class Hibernate {
+
+        @Param({"0", "50"})
+        private int jdbcBatchSize;
+
+        private SessionFactory sessionFactory;
+        private Long userId;
+        private Long postId;
+
+        @Setup
+        public void setUp() {
+            StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                    .applySetting(AvailableSettings.URL, System.getProperty("benchmark.hibernate-jdbc-url",
+                            "jdbc:mysql://localhost:3306/sns_benchmark?createDatabaseIfNotExist=true&rewriteBatchedStatements=true"))
+                    .applySetting(AvailableSettings.USER, System.getProperty("benchmark.jdbc-user", "root"))
+                    .applySetting(AvailableSettings.PASS, System.getProperty("benchmark.jdbc-password", ""))
+                    .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                    // spring boot 와 같은 컬럼 이름 (alarmType -> alarm_type)
+                    .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+                    .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(jdbcBatchSize))
+                    .applySetting(AvailableSettings.ORDER_INSERTS, "true")
+                    .build();
+            sessionFactory = new MetadataSources(registry)
+                    .addAnnotatedClass(UserEntity.class)
+                    .addAnnotatedClass(PostEntity.class)
+                    .addAnnotatedClass(CommentEntity.class)
+                    .addAnnotatedClass(AlarmEntity.class)
+                    .buildMetadata()
+                    .buildSessionFactory();
+
+            List<Long> ids = inTransaction(entityManager -> {
+                UserEntity user = UserEntity.of("benchmark", "password");
+                PostEntity post = PostEntity.of("title", "body", user);
+                entityManager.persist(user);
+                entityManager.persist(post);
+                return List.of(user.getId(), post.getId());
+            });
+            userId = ids.get(0);
+            postId = ids.get(1);
+        }
+
+        @TearDown
+        public void tearDown() {
+            sessionFactory.close();
+        }
+
+        private <T> T inTransaction(Function<EntityManager, T> work) {
+            EntityManager entityManager = sessionFactory.createEntityManager();
+            try {
+                entityManager.getTransaction().begin();
+                T result = work.apply(entityManager);
+                entityManager.getTransaction().commit();
+                return result;
+            } finally {
+                entityManager.close();
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc-url", "jdbc:mysql://localhost:3306/sns") + "?rewriteBatchedStatements=true",
+                System.getProperty("benchmark.jdbc-user", "root"),
+                System.getProperty("benchmark.jdbc-password", ""));
+        idGenerator = new SnowflakeIdGenerator(1);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS comment_benchmark (" +
+                    "id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT, post_id BIGINT, comment TEXT, " +
+                    "registered_at DATETIME(6), updated_at DATETIME(6), deleted_at DATETIME(6), INDEX post_id_idx (post_id, id))");
+            statement.execute("CREATE TABLE IF NOT EXISTS alarm_insert_benchmark (" +
+                    "id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT, alarm_type VARCHAR(255), args JSON, target_id BIGINT, " +
+                    "actor_count INT DEFAULT 1 NOT NULL, latest_actor_ids JSON, " +
+                    "registered_at DATETIME(6), updated_at DATETIME(6), deleted_at DATETIME(6))");
+        }
+        // 한 건마다 커밋 (fsync) 하면 그 비용이 insert 방식의 차이를 가리므로, 매 invocation 을 한 트랜잭션으로 커밋한다.
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE comment_benchmark");
+            statement.execute("DROP TABLE alarm_insert_benchmark");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void commentIdentity() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(String.format(COMMENT_SQL, "", ""), Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                bindComment(ps, 1, i);
+                ps.executeUpdate();
+                readKey(ps);
+            }
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    public void commentBatch() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(String.format(COMMENT_SQL, "id,", "?,"))) {
+            for (int i = 0; i < ROWS; i++) {
+                ps.setLong(1, idGenerator.nextId());
+                bindComment(ps, 2, i);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    public void commentEntityManager(Hibernate hibernate) {
+        hibernate.inTransaction(entityManager -> {
+            UserEntity user = entityManager.getReference(UserEntity.class, hibernate.userId);
+            PostEntity post = entityManager.getReference(PostEntity.class, hibernate.postId);
+            for (int i = 0; i < ROWS; i++) {
+                entityManager.persist(CommentEntity.of(user, post, "comment " + i));
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    public void alarmIdentity() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(String.format(ALARM_SQL, "", ""), Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                bindAlarm(ps, 1, i);
+                ps.executeUpdate();
+                readKey(ps);
+            }
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    public void alarmBatch() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(String.format(ALARM_SQL, "id,", "?,"))) {
+            for (int i = 0; i < ROWS; i++) {
+                ps.setLong(1, idGenerator.nextId());
+                bindAlarm(ps, 2, i);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    public void alarmEntityManager(Hibernate hibernate) {
+        hibernate.inTransaction(entityManager -> {
+            UserEntity user = entityManager.getReference(UserEntity.class, hibernate.userId);
+            for (int i = 0; i < ROWS; i++) {
+                entityManager.persist(AlarmEntity.of(user, AlarmType.NEW_COMMENT_ON_POST, new AlarmArgs((long) i, hibernate.postId)));
+            }
+            return null;
+        });
+    }
+
+    private void bindComment(PreparedStatement ps, int from, int i) throws SQLException {
+        ps.setLong(from, i % 100);
+        ps.setLong(from + 1, i % 10);
+        ps.setString(from + 2, "comment " + i);
+    }
+
+    private void bindAlarm(PreparedStatement ps, int from, int i) throws SQLException {
+        ps.setLong(from, i % 100);
+        ps.setString(from + 1, String.format("{\"fromUserId\":%d,\"targetId\":%d}", i, i % 10));
+        ps.setLong(from + 2, i % 10);
+        ps.setString(from + 3, String.format("[%d]", i));
+    }
+
+    private void readKey(PreparedStatement ps) throws SQLException {
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            keys.next();
+            keys.getLong(1);
+        }
+    }
+}
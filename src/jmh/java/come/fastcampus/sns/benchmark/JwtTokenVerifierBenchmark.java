@@ -0,0 +1,56 @@
+package come.fastcampus.sns.benchmark;
+
+import come.fastcampus.sns.model.TokenClaims;
+import come.fastcampus.sns.util.CachingJwtTokenVerifier;
+import come.fastcampus.sns.util.JwtTokenUtils;
+import come.fastcampus.sns.util.JwtTokenVerifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtTokenFilter 의 토큰 검증 비용 비교
+ * - twoParse : 기존 JwtTokenUtils.isExpired + getUserName (parser / Key 생성 + 서명 검증 2회)
+ * - verifier : JwtTokenVerifier.verify (미리 만든 parser 로 서명 검증 1회)
+ * - cachedVerifier : CachingJwtTokenVerifier.verify (같은 토큰 반복시 해시 1회 + 캐시 조회)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenVerifierBenchmark {
+
+    private static final String KEY = "fast_campus.sns-application-2022.secret_key";
+
+    private String token;
+    private JwtTokenVerifier verifier;
+    private JwtTokenVerifier cachedVerifier;
+
+    @Setup
+    public void setUp() {
+        token = JwtTokenUtils.generateToken("userName", KEY, TimeUnit.DAYS.toMillis(30));
+        verifier = new JwtTokenVerifier(KEY);
+        cachedVerifier = new CachingJwtTokenVerifier(KEY, 16 * 1024 * 1024, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public void twoParse(Blackhole blackhole) {
+        blackhole.consume(JwtTokenUtils.isExpired(token, KEY));
+        blackhole.consume(JwtTokenUtils.getUserName(token, KEY));
+    }
+
+    @Benchmark
+    public void verifier(Blackhole blackhole) {
+        TokenClaims claims = verifier.verify(token);
+        blackhole.consume(claims.isExpired());
+        blackhole.consume(claims.getUserName());
+    }
+
+    @Benchmark
+    public void cachedVerifier(Blackhole blackhole) {
+        TokenClaims claims = cachedVerifier.verify(token);
+        blackhole.consume(claims.isExpired());
+        blackhole.consume(claims.getUserName());
+    }
+}
@@ -3,6 +3,9 @@ package come.fastcampus.sns.configuration;
 import come.fastcampus.sns.configuration.filter.JwtTokenFilter;
 import come.fastcampus.sns.exception.CustomAuthenticationEntryPoint;
 import come.fastcampus.sns.service.UserService;
+import come.fastcampus.sns.util.CachingJwtTokenVerifier;
+import come.fastcampus.sns.util.JwtTokenVerifier;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -22,18 +25,32 @@ public class AuthenticationConfig {
     @Value("${jwt.secret-key}")
     private String key;
 
+    @Value("${jwt.verified-token-cache.enabled:false}")
+    private boolean verifiedTokenCacheEnabled;
+
+    @Value("${jwt.verified-token-cache.maximum-bytes:16777216}")
+    private long verifiedTokenCacheMaximumBytes;
+
+    @Bean
+    public JwtTokenVerifier jwtTokenVerifier(MeterRegistry meterRegistry) {
+        if (verifiedTokenCacheEnabled) {
+            return new CachingJwtTokenVerifier(key, verifiedTokenCacheMaximumBytes, meterRegistry);
+        }
+        return new JwtTokenVerifier(key);
+    }
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtTokenVerifier jwtTokenVerifier) throws Exception {
         http
                 .csrf().disable()
                 .authorizeRequests()
-                .antMatchers("/api/*/users/join", "/api/*/users/login").permitAll()
+                .antMatchers("/api/*/users/join", "/api/*/users/join/available", "/api/*/users/login").permitAll()
                 .antMatchers("/api/**").authenticated()
                 .and()
                 .sessionManagement()
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
-                .addFilterBefore(new JwtTokenFilter(key, userService), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new JwtTokenFilter(jwtTokenVerifier, userService), UsernamePasswordAuthenticationFilter.class)
                 .exceptionHandling()
                 .authenticationEntryPoint(new CustomAuthenticationEntryPoint());
 
@@ -0,0 +1,27 @@
+package come.fastcampus.sns.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DataSourceConfig {
+
+    // MySQL 은 JDBC batch 를 multi-row INSERT 한 문장으로 보내도록 한다. (PostBulkRepository)
+    @Bean
+    public static BeanPostProcessor rewriteBatchedStatementsPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource) {
+                    HikariDataSource dataSource = (HikariDataSource) bean;
+                    if (dataSource.getJdbcUrl() != null && dataSource.getJdbcUrl().startsWith("jdbc:mysql:")) {
+                        dataSource.addDataSourceProperty("rewriteBatchedStatements", "true");
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+}
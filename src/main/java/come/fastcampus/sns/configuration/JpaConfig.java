@@ -0,0 +1,33 @@
+package come.fastcampus.sns.configuration;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaConfig {
+
+    // Hibernate 가 실행하는 모든 statement 를 요청 스레드 기준으로 센다. (QueryCounter)
+    @Bean
+    public HibernatePropertiesCustomizer queryCountCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector());
+    }
+
+    // id 를 insert 전에 받으므로 (SnsIdGenerator) 같은 엔티티의 insert / update 를 모아서 JDBC batch 로 보낸다.
+    @Bean
+    public HibernatePropertiesCustomizer idGenerationCustomizer(@Value("${id.strategy:pooled}") String strategy,
+                                                                @Value("${id.snowflake.worker-id:0}") long workerId,
+                                                                @Value("${id.pooled.increment-size:50}") int incrementSize) {
+        return properties -> {
+            properties.put(SnsIdGenerator.STRATEGY_SETTING, strategy);
+            properties.put(SnsIdGenerator.WORKER_ID_SETTING, String.valueOf(workerId));
+            properties.put(SnsIdGenerator.INCREMENT_SIZE_SETTING, String.valueOf(incrementSize));
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, "50");
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, "true");
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, "true");
+            properties.putIfAbsent(AvailableSettings.BATCH_VERSIONED_DATA, "true");
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package come.fastcampus.sns.configuration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * pooled id 전략의 {table}_seq 는 1 부터 시작하므로, IDENTITY 로 id 를 발급하던 기존 DB 에서는 첫 insert 부터 PK 가 겹친다.
+ * 요청을 받기 전에 (웹 서버 시작 전) 엔티티마다 다음에 발급할 id 가 MAX(id) 보다 큰지 확인한다.
+ * - {table}_seq 테이블 (MySQL) : next_val 을 MAX(id) + 1 로 올린다. 다른 노드가 이미 더 올렸으면 건드리지 않는다.
+ * - DB 시퀀스 : 올릴 방법이 DB 마다 다르므로 ALTER SEQUENCE 가 필요하다는 에러로 시작을 멈춘다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PooledIdSequenceInitializer implements SmartInitializingSingleton {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+
+        for (EntityPersister persister : sessionFactory.getMetamodel().entityPersisters().values()) {
+            IdentifierGenerator generator = persister.getIdentifierGenerator();
+            if (!(generator instanceof SnsIdGenerator) || !(persister instanceof AbstractEntityPersister)) {
+                continue;
+            }
+            DatabaseStructure structure = ((SnsIdGenerator) generator).getPooledStructure();
+            if (structure == null) {
+                continue;
+            }
+
+            AbstractEntityPersister entity = (AbstractEntityPersister) persister;
+            // soft delete 된 row 도 PK 를 차지하므로 @Where 없이 센다.
+            Long maxId = jdbcTemplate.queryForObject(String.format("SELECT MAX(%s) FROM %s",
+                    entity.getIdentifierColumnNames()[0], entity.getTableName()), Long.class);
+            if (maxId == null) {
+                continue;
+            }
+
+            String sequence = structure.getPhysicalName().render();
+            if (structure.isPhysicalSequence()) {
+                // 값을 하나 소모하지만 pooled-lo 에서는 id 구간 하나를 건너뛸 뿐이다.
+                Long next = jdbcTemplate.queryForObject(dialect.getSequenceNextValString(sequence), Long.class);
+                if (next == null || next <= maxId) {
+                    throw new IllegalStateException(String.format("Sequence %s (next %s) is not above max id %d of %s. run ALTER SEQUENCE %s RESTART WITH %d",
+                            sequence, next, maxId, entity.getTableName(), sequence, maxId + 1));
+                }
+            } else if (jdbcTemplate.update(String.format("UPDATE %s SET next_val = ? WHERE next_val <= ?", sequence), maxId + 1, maxId) > 0) {
+                log.warn("Id table {} is seeded above max id {} of {}", sequence, maxId, entity.getTableName());
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package come.fastcampus.sns.configuration;
+
+import come.fastcampus.sns.util.QueryCounter;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class QueryCountInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.increase();
+        return sql;
+    }
+}
@@ -0,0 +1,21 @@
+package come.fastcampus.sns.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.TaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    // spring boot 기본값은 스레드 1개라서, batch 사이에 쉬는 정리 작업 (SoftDeletePurgeScheduler, AlarmRetentionScheduler) 이 도는 동안
+    // 좋아요 flush (LikeCountBuffer) 와 SSE heartbeat (AlarmPushService) 가 밀린다. 같은 작업끼리는 여전히 겹쳐서 실행되지 않는다.
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(TaskSchedulerBuilder builder,
+                                                 @Value("${spring.task.scheduling.pool.size:4}") int poolSize) {
+        return builder.poolSize(poolSize).build();
+    }
+}
@@ -0,0 +1,85 @@
+package come.fastcampus.sns.configuration;
+
+import come.fastcampus.sns.util.SnowflakeIdGenerator;
+import org.hibernate.boot.model.relational.Database;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Properties;
+
+/**
+ * 엔티티 id 생성 전략. insert 전에 id 를 알 수 있으므로 (IDENTITY 와 달리) Hibernate 가 insert 를 JDBC batch 로 묶을 수 있다.
+ * - pooled (기본값) : 엔티티별 {table}_seq 테이블 (MySQL) 또는 시퀀스에서 increment-size 개씩 미리 받아서 쓴다. (pooled-lo)
+ * - snowflake : DB 를 거치지 않는 시간순 64bit id. 2^53 을 넘으므로 JS 클라이언트는 문자열로 다뤄야 한다.
+ * 전략은 JpaConfig 가 id.strategy 프로퍼티를 Hibernate 설정으로 넘겨준다.
+ * pooled 의 {table}_seq 는 1 부터 시작하므로 기존 DB 에서는 PooledIdSequenceInitializer 가 MAX(id) 위로 맞춘다.
+ */
+public class SnsIdGenerator implements IdentifierGenerator {
+
+    public static final String NAME = "sns-id";
+    public static final String STRATEGY = "come.fastcampus.sns.configuration.SnsIdGenerator";
+
+    static final String STRATEGY_SETTING = "sns.id.strategy";
+    static final String WORKER_ID_SETTING = "sns.id.snowflake.worker-id";
+    static final String INCREMENT_SIZE_SETTING = "sns.id.pooled.increment-size";
+
+    private static final String SNOWFLAKE = "snowflake";
+    private static final String POOLED = "pooled";
+
+    private SnowflakeIdGenerator snowflake;
+    private SequenceStyleGenerator pooled;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+        ConfigurationService configuration = serviceRegistry.getService(ConfigurationService.class);
+        String strategy = configuration.getSetting(STRATEGY_SETTING, StandardConverters.STRING, POOLED);
+
+        if (SNOWFLAKE.equals(strategy)) {
+            snowflake = new SnowflakeIdGenerator(Long.parseLong(configuration.getSetting(WORKER_ID_SETTING, StandardConverters.STRING, "0")));
+        } else if (POOLED.equals(strategy)) {
+            Properties pooledParams = new Properties();
+            pooledParams.putAll(params);
+            String table = params.getProperty(PersistentIdentifierGenerator.TABLE).replace("\"", "").replace("`", "");
+            pooledParams.put(SequenceStyleGenerator.SEQUENCE_PARAM, table + "_seq");
+            pooledParams.put(SequenceStyleGenerator.INCREMENT_PARAM, configuration.getSetting(INCREMENT_SIZE_SETTING, StandardConverters.STRING, "50"));
+            pooledParams.put(SequenceStyleGenerator.OPT_PARAM, "pooled-lo");
+            pooled = new SequenceStyleGenerator();
+            pooled.configure(type, pooledParams, serviceRegistry);
+        } else {
+            throw new IllegalArgumentException(String.format("Unknown id strategy %s (%s or %s)", strategy, POOLED, SNOWFLAKE));
+        }
+    }
+
+    @Override
+    public void registerExportables(Database database) {
+        if (pooled != null) {
+            pooled.registerExportables(database);
+        }
+    }
+
+    @Override
+    public void initialize(SqlStringGenerationContext context) {
+        if (pooled != null) {
+            pooled.initialize(context);
+        }
+    }
+
+    // pooled 전략의 {table}_seq (snowflake 면 null)
+    DatabaseStructure getPooledStructure() {
+        return pooled != null ? pooled.getDatabaseStructure() : null;
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        return snowflake != null ? snowflake.nextId() : pooled.generate(session, object);
+    }
+}
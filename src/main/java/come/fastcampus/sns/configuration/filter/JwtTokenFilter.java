@@ -1,8 +1,9 @@
 package come.fastcampus.sns.configuration.filter;
 
+import come.fastcampus.sns.model.TokenClaims;
 import come.fastcampus.sns.model.User;
 import come.fastcampus.sns.service.UserService;
-import come.fastcampus.sns.util.JwtTokenUtils;
+import come.fastcampus.sns.util.JwtTokenVerifier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
@@ -16,6 +17,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
 
 /**
  * OncePerRequestFilter : 요청떄마다 필터 씌울 것
@@ -24,9 +26,17 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtTokenFilter extends OncePerRequestFilter {
 
-    private final String key;
+    private static final List<String> TOKEN_IN_PARAM_URLS = List.of("/api/v1/users/alarm/subscribe");
+
+    private final JwtTokenVerifier jwtTokenVerifier;
     private final UserService userService;
 
+    // SSE 연결이 끝날 때의 async dispatch 에서도 인증이 필요하다.
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -34,28 +44,23 @@ public class JwtTokenFilter extends OncePerRequestFilter {
 
         // 토큰을 Header에 넣고, 헤더에 있는 토큰을 같이 넣어줘서 (요청떄마다) 요청이 오면 Header 값을 보고, 토큰값을 보고 인증을 거친다.
 
-        // get header
-        final String header = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if (header == null || !header.startsWith("Bearer ")) {
-            log.error("Error occurs while getting header. header is null or invalid", request.getRequestURL());
+        final String token = resolveToken(request);
+        if (token == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
         try {
-            final String token = header.split(" ")[1].trim();
-
-            // TODO: check token is valid
-            if (JwtTokenUtils.isExpired(token, key)) {
+            // 서명 검증은 한번만 하고, 만료시간과 userName 을 같이 꺼낸다.
+            TokenClaims claims = jwtTokenVerifier.verify(token);
+            if (claims.isExpired()) {
                 log.error("Key is expired");
                 filterChain.doFilter(request, response);
                 return;
             }
 
-            // get userName from token
-            String userName = JwtTokenUtils.getUserName(token, key);
             // check the user is valid
-            User user = userService.loadUserByUserName(userName);
+            User user = userService.loadUserByUserName(claims.getUserName());
 
 
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
@@ -71,4 +76,23 @@ public class JwtTokenFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private String resolveToken(HttpServletRequest request) {
+        if (TOKEN_IN_PARAM_URLS.contains(request.getRequestURI())) {
+            // EventSource(SSE) 는 header 를 설정할 수 없어서 query parameter 로 토큰을 받는다.
+            final String token = request.getParameter("token");
+            if (token == null) {
+                log.error("Error occurs while getting token. token param is null", request.getRequestURL());
+            }
+            return token;
+        }
+
+        // get header
+        final String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith("Bearer ")) {
+            log.error("Error occurs while getting header. header is null or invalid", request.getRequestURL());
+            return null;
+        }
+        return header.substring("Bearer ".length()).trim();
+    }
 }
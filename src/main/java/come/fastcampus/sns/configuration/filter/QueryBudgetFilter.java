@@ -0,0 +1,55 @@
+package come.fastcampus.sns.configuration.filter;
+
+import come.fastcampus.sns.util.QueryCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 요청 하나에서 실행된 SQL statement 수가 budget 을 넘으면 warn 로그를 남긴다.
+ * N+1, 중복 호출 같은 회귀를 잡기 위한 용도로, 테스트에서는 query-budget.fail-on-exceed=true 로 실패시킬 수 있다.
+ * 인증 필터(유저 조회)까지 포함하도록 가장 바깥에서 동작한다.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    @Value("${query-budget.max-statements:10}")
+    private int maxStatements;
+
+    @Value("${query-budget.fail-on-exceed:false}")
+    private boolean failOnExceed;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryCounter.clear();
+        int count;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            count = QueryCounter.count();
+            QueryCounter.clear();
+        }
+
+        if (count > maxStatements) {
+            String message = String.format("%s %s executed %d statements (budget %d)",
+                    request.getMethod(), request.getRequestURI(), count, maxStatements);
+            if (failOnExceed) {
+                throw new IllegalStateException(message);
+            }
+            log.warn(message);
+        }
+    }
+}
@@ -4,16 +4,23 @@ import come.fastcampus.sns.controller.request.PostCommentRequest;
 import come.fastcampus.sns.controller.request.PostCreateRequest;
 import come.fastcampus.sns.controller.request.PostModifyRequest;
 import come.fastcampus.sns.controller.response.CommentResponse;
+import come.fastcampus.sns.controller.response.CursorResponse;
 import come.fastcampus.sns.controller.response.PostResponse;
 import come.fastcampus.sns.controller.response.Response;
+import come.fastcampus.sns.exception.ErrorCode;
+import come.fastcampus.sns.exception.SnsApplicationException;
 import come.fastcampus.sns.model.Post;
+import come.fastcampus.sns.model.User;
 import come.fastcampus.sns.service.PostService;
+import come.fastcampus.sns.util.ClassUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/posts")
@@ -23,19 +30,29 @@ public class PostController {
 
     @PostMapping
     public Response<Void> create(@RequestBody PostCreateRequest request, Authentication authentication) {
-        postService.create(request.getTitle(), request.getBody(), authentication.getName());
+        postService.create(request.getTitle(), request.getBody(), getUser(authentication).getId());
         return Response.success();
     }
 
+    @PostMapping("/bulk")
+    public Response<List<Long>> createAll(@RequestBody List<PostCreateRequest> requests, Authentication authentication) {
+        return Response.success(postService.createAll(requests, getUser(authentication).getId()));
+    }
+
+    @GetMapping("/{postId}")
+    public Response<PostResponse> get(@PathVariable Long postId) {
+        return Response.success(PostResponse.fromPost(postService.get(postId)));
+    }
+
     @PutMapping("/{postId}")
-    public Response<PostResponse> modify(@PathVariable Integer postId, @RequestBody PostModifyRequest request, Authentication authentication) {
-        Post post = postService.modify(request.getTitle(), request.getBody(), authentication.getName(), postId);
+    public Response<PostResponse> modify(@PathVariable Long postId, @RequestBody PostModifyRequest request, Authentication authentication) {
+        Post post = postService.modify(request.getTitle(), request.getBody(), getUser(authentication).getId(), postId);
         return Response.success(PostResponse.fromPost(post));
     }
 
     @DeleteMapping("/{postId}")
-    public Response<Void> delete(@PathVariable Integer postId, Authentication authentication) {
-        postService.delete(authentication.getName(), postId);
+    public Response<Void> delete(@PathVariable Long postId, Authentication authentication) {
+        postService.delete(getUser(authentication).getId(), postId);
         return Response.success();
     }
 
@@ -46,29 +63,62 @@ public class PostController {
 
     @GetMapping("/my")
     public Response<Page<PostResponse>> my(Pageable pageable, Authentication authentication) {
-        return Response.success(postService.my(authentication.getName(), pageable).map(PostResponse::fromPost));
+        return Response.success(postService.my(getUser(authentication).getId(), pageable).map(PostResponse::fromPost));
+    }
+
+    @GetMapping("/scroll")
+    public Response<CursorResponse<PostResponse>> scroll(@RequestParam(required = false) Long cursor,
+                                                         @RequestParam(defaultValue = "20") int size) {
+        return Response.success(CursorResponse.of(postService.scroll(cursor, size).map(PostResponse::fromPost), PostResponse::getId));
+    }
+
+    @GetMapping("/my/scroll")
+    public Response<CursorResponse<PostResponse>> myScroll(@RequestParam(required = false) Long cursor,
+                                                           @RequestParam(defaultValue = "20") int size,
+                                                           Authentication authentication) {
+        return Response.success(CursorResponse.of(postService.myScroll(getUser(authentication).getId(), cursor, size).map(PostResponse::fromPost), PostResponse::getId));
+    }
+
+    // 홈 피드 : push 된 타임라인 + 팔로워가 많은 작성자의 포스트를 합친다. (/timeline 은 이전 경로)
+    @GetMapping({"/home", "/timeline"})
+    public Response<CursorResponse<PostResponse>> home(@RequestParam(required = false) Long cursor,
+                                                           @RequestParam(defaultValue = "20") int size,
+                                                           Authentication authentication) {
+        return Response.success(CursorResponse.of(postService.timeline(getUser(authentication).getId(), cursor, size).map(PostResponse::fromPost), PostResponse::getId));
     }
 
     @PostMapping("/{postId}/likes")
-    public Response<Void> like(@PathVariable Integer postId, Authentication authentication) {
-        postService.like(postId, authentication.getName());
+    public Response<Void> like(@PathVariable Long postId, Authentication authentication) {
+        postService.like(postId, getUser(authentication).getId());
         return Response.success();
     }
 
     @GetMapping("/{postId}/likes")
-    public Response<Long> likeCount(@PathVariable Integer postId) {
+    public Response<Long> likeCount(@PathVariable Long postId) {
         return Response.success(postService.likeCount(postId));
     }
 
     @PostMapping("/{postId}/comments")
-    public Response<Void> comment(@PathVariable Integer postId, @RequestBody PostCommentRequest request, Authentication authentication) {
-        postService.comment(postId, authentication.getName(), request.getComment());
+    public Response<Void> comment(@PathVariable Long postId, @RequestBody PostCommentRequest request, Authentication authentication) {
+        postService.comment(postId, getUser(authentication).getId(), request.getComment());
         return Response.success();
     }
 
     @GetMapping("/{postId}/comments")
-    public Response<Page<CommentResponse>> comment(@PathVariable Integer postId, Pageable pageable) {
-        postService.getComments(postId, pageable);
+    public Response<Page<CommentResponse>> comment(@PathVariable Long postId, Pageable pageable) {
         return Response.success(postService.getComments(postId, pageable).map(CommentResponse::fromComment));
     }
+
+    @GetMapping("/{postId}/comments/scroll")
+    public Response<CursorResponse<CommentResponse>> commentScroll(@PathVariable Long postId,
+                                                                   @RequestParam(required = false) Long cursor,
+                                                                   @RequestParam(defaultValue = "20") int size) {
+        return Response.success(CursorResponse.of(postService.scrollComments(postId, cursor, size).map(CommentResponse::fromComment), CommentResponse::getId));
+    }
+
+    // JwtTokenFilter 가 SecurityContext 에 넣어둔 User 를 그대로 쓴다. (서비스에서 user 를 다시 조회하지 않는다)
+    private User getUser(Authentication authentication) {
+        return ClassUtils.getSafeCastInstance(authentication.getPrincipal(), User.class).orElseThrow(
+                () -> new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "Casting to User class failed"));
+    }
 }
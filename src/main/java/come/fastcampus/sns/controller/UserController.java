@@ -9,6 +9,7 @@ import come.fastcampus.sns.controller.response.UserLoginResponse;
 import come.fastcampus.sns.exception.ErrorCode;
 import come.fastcampus.sns.exception.SnsApplicationException;
 import come.fastcampus.sns.model.User;
+import come.fastcampus.sns.service.AlarmPushService;
 import come.fastcampus.sns.service.UserService;
 import come.fastcampus.sns.util.ClassUtils;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +17,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequiredArgsConstructor
@@ -23,6 +25,7 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserService userService;
+    private final AlarmPushService alarmPushService;
 
     @PostMapping("/join")
     public Response<UserJoinResponse> join(@RequestBody UserJoinRequest request) {
@@ -31,6 +34,12 @@ public class UserController {
         return Response.success(UserJoinResponse.fromUser(user));
     }
 
+    // 가입 폼에서 입력할 때마다 호출된다. 대부분 Bloom filter 에서 끝나고 DB 를 조회하지 않는다.
+    @GetMapping("/join/available")
+    public Response<Boolean> isUserNameAvailable(@RequestParam String userName) {
+        return Response.success(userService.isUserNameAvailable(userName));
+    }
+
     @PostMapping("/login")
     public Response<UserLoginResponse> login(@RequestBody UserLoginRequest request) {
         // login
@@ -38,10 +47,49 @@ public class UserController {
         return Response.success(new UserLoginResponse(token));
     }
 
+    @PostMapping("/{userName}/follow")
+    public Response<Void> follow(@PathVariable String userName, Authentication authentication) {
+        User user = ClassUtils.getSafeCastInstance(authentication.getPrincipal(), User.class).orElseThrow(
+                () -> new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "Casting to User class failed"));
+        userService.follow(user.getId(), userName);
+        return Response.success();
+    }
+
+    @DeleteMapping("/{userName}/follow")
+    public Response<Void> unfollow(@PathVariable String userName, Authentication authentication) {
+        User user = ClassUtils.getSafeCastInstance(authentication.getPrincipal(), User.class).orElseThrow(
+                () -> new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "Casting to User class failed"));
+        userService.unfollow(user.getId(), userName);
+        return Response.success();
+    }
+
     @GetMapping("/alarm")
     public Response<Page<AlarmResponse>> alarms(Pageable pageable, Authentication authentication) {
         User user = ClassUtils.getSafeCastInstance(authentication.getPrincipal(), User.class).orElseThrow(
                 () -> new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "Casting to User class failed"));
         return Response.success(userService.alarmList(user.getId(), pageable).map(AlarmResponse::fromAlarm));
     }
+
+    @GetMapping("/alarm/unread-count")
+    public Response<Long> unreadAlarmCount(Authentication authentication) {
+        User user = ClassUtils.getSafeCastInstance(authentication.getPrincipal(), User.class).orElseThrow(
+                () -> new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "Casting to User class failed"));
+        return Response.success(userService.unreadAlarmCount(user.getId()));
+    }
+
+    @PostMapping("/alarm/read")
+    public Response<Void> readAlarms(Authentication authentication) {
+        User user = ClassUtils.getSafeCastInstance(authentication.getPrincipal(), User.class).orElseThrow(
+                () -> new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "Casting to User class failed"));
+        userService.readAlarms(user.getId());
+        return Response.success();
+    }
+
+    // EventSource 는 header 를 넣을 수 없어서 ?token= 으로 인증한다. (JwtTokenFilter)
+    @GetMapping("/alarm/subscribe")
+    public SseEmitter subscribe(Authentication authentication) {
+        User user = ClassUtils.getSafeCastInstance(authentication.getPrincipal(), User.class).orElseThrow(
+                () -> new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, "Casting to User class failed"));
+        return alarmPushService.connect(user.getId());
+    }
 }
@@ -7,15 +7,18 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 import java.sql.Timestamp;
+import java.util.List;
 
 @Getter
 @AllArgsConstructor
 public class AlarmResponse {
 
-    private Integer id;
+    private Long id;
     private AlarmType alarmType;
     private AlarmArgs alarmArgs;
     private String text; // 문구
+    private int actorCount; // OO외 (actorCount - 1)명
+    private List<Long> latestActorIds;
     private Timestamp registeredAt;
     private Timestamp updatedAt;
     private Timestamp deletedAt;
@@ -26,6 +29,8 @@ public class AlarmResponse {
                 alarm.getAlarmType(),
                 alarm.getArgs(),
                 alarm.getAlarmType().getAlarmText(),
+                alarm.getActorCount(),
+                alarm.getLatestActorIds(),
                 alarm.getRegisteredAt(),
                 alarm.getUpdatedAt(),
                 alarm.getDeletedAt()
@@ -10,10 +10,10 @@ import java.sql.Timestamp;
 @AllArgsConstructor
 public class CommentResponse {
 
-    private Integer id;
+    private Long id;
     private String comment;
     private String userName;
-    private Integer postId;
+    private Long postId;
     private Timestamp registeredAt;
     private Timestamp updatedAt;
     private Timestamp deletedAt;
@@ -0,0 +1,26 @@
+package come.fastcampus.sns.controller.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+@AllArgsConstructor
+public class CursorResponse<T> {
+
+    private List<T> content;
+    private boolean hasNext;
+    // 다음 페이지 요청시 cursor 로 넘길 값 (마지막 페이지면 null)
+    private Long nextCursor;
+
+    public static <T> CursorResponse<T> of(Slice<T> slice, Function<T, Long> cursorExtractor) {
+        List<T> content = slice.getContent();
+        Long nextCursor = slice.hasNext() && !content.isEmpty()
+                ? cursorExtractor.apply(content.get(content.size() - 1))
+                : null;
+        return new CursorResponse<>(content, slice.hasNext(), nextCursor);
+    }
+}
@@ -9,7 +9,7 @@ import lombok.Getter;
 @AllArgsConstructor
 public class UserJoinResponse {
 
-    private Integer id;
+    private Long id;
     private String userName;
     private UserRole role;
 
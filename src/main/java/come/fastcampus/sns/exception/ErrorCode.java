@@ -15,7 +15,11 @@ public enum ErrorCode {
     INVALID_PASSWORD(HttpStatus.UNAUTHORIZED, "Password is invalid"),
     POST_NOT_FOUND(HttpStatus.NOT_FOUND, "Post not founded"),
     INVALID_PERMISSION(HttpStatus.UNAUTHORIZED, "Permission is invalid"),
-    ALREADY_LIKED(HttpStatus.CONFLICT, "User already liked the post")
+    ALREADY_LIKED(HttpStatus.CONFLICT, "User already liked the post"),
+    TOO_MANY_CONNECTIONS(HttpStatus.SERVICE_UNAVAILABLE, "Too many connections"),
+    INVALID_REQUEST(HttpStatus.BAD_REQUEST, "Request is invalid"),
+    ALREADY_FOLLOWED(HttpStatus.CONFLICT, "User already followed the user"),
+    PASSWORD_HASHER_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, try again later")
     ;
 
     private HttpStatus status;
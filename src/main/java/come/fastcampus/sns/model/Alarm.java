@@ -3,27 +3,29 @@ package come.fastcampus.sns.model;
 import come.fastcampus.sns.model.entity.AlarmEntity;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.extern.slf4j.Slf4j;
 
 import java.sql.Timestamp;
+import java.util.List;
 
-@Slf4j
 @Getter
 @AllArgsConstructor
 public class Alarm {
-    private Integer id;
+    private Long id;
     private AlarmType alarmType;
     private AlarmArgs args;
+    private int actorCount;
+    private List<Long> latestActorIds;
     private Timestamp registeredAt;
     private Timestamp updatedAt;
     private Timestamp deletedAt;
 
     public static Alarm fromEntity(AlarmEntity entity) {
-        log.info("=== Call fromEntity ===");
         return new Alarm(
                 entity.getId(),
                 entity.getAlarmType(),
                 entity.getArgs(),
+                entity.getActorCount(),
+                entity.getLatestActorIds(),
                 entity.getRegisteredAt(),
                 entity.getUpdatedAt(),
                 entity.getDeletedAt()
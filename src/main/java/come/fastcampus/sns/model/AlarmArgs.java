@@ -8,10 +8,10 @@ import lombok.Data;
 public class AlarmArgs {
 
     // 알람을 발생시킨 사람
-    private Integer fromUserId;
+    private Long fromUserId;
     // 알람이 발생된 주체 ID
-    private Integer targetId;
+    private Long targetId;
 }
 
 // comment: OO씨가 새 코멘트를 장성했씁니다. -> postId, commentId
-// OO외 2명이 새 코멘트를 작성했습니다. -> commentId, commentId
+// OO외 2명이 새 코멘트를 작성했습니다. -> AlarmEntity.actorCount, AlarmEntity.latestActorIds 로 뭉친다.
@@ -0,0 +1,17 @@
+package come.fastcampus.sns.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 좋아요 / 댓글 같은 유저 액션이 커밋된 이후 알람을 만들기 위한 도메인 이벤트
+ */
+@Getter
+@AllArgsConstructor
+public class AlarmEvent {
+
+    // 알람을 받을 사람
+    private Long receiverUserId;
+    private AlarmType alarmType;
+    private AlarmArgs args;
+}
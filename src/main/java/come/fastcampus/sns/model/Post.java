@@ -10,7 +10,7 @@ import java.sql.Timestamp;
 @AllArgsConstructor
 public class Post {
 
-    private Integer id;
+    private Long id;
     private String title;
     private String body;
     private User user;
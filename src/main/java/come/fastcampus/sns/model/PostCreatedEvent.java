@@ -0,0 +1,15 @@
+package come.fastcampus.sns.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 포스트 작성이 커밋된 이후 팔로워 타임라인에 fan-out 하기 위한 도메인 이벤트
+ */
+@Getter
+@AllArgsConstructor
+public class PostCreatedEvent {
+
+    private Long postId;
+    private Long authorId;
+}
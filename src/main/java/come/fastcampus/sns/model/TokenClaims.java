@@ -0,0 +1,18 @@
+package come.fastcampus.sns.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+@Getter
+@AllArgsConstructor
+public class TokenClaims {
+
+    private String userName;
+    private Date expiredAt;
+
+    public boolean isExpired() {
+        return expiredAt.before(new Date());
+    }
+}
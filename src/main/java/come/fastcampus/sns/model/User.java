@@ -15,7 +15,7 @@ import java.util.List;
 @AllArgsConstructor
 public class User implements UserDetails {
 
-    private Integer id;
+    private Long id;
     private String userName;
     private String password;
     private UserRole userRole;
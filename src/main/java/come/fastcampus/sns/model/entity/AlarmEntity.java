@@ -1,10 +1,12 @@
 package come.fastcampus.sns.model.entity;
 
+import come.fastcampus.sns.configuration.SnsIdGenerator;
 import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
 import come.fastcampus.sns.model.AlarmArgs;
 import come.fastcampus.sns.model.AlarmType;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Type;
 import org.hibernate.annotations.TypeDef;
@@ -13,20 +15,30 @@ import org.hibernate.annotations.Where;
 import javax.persistence.*;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 @Getter
 @Setter
 @Entity
 @TypeDef(name = "jsonb", typeClass = JsonBinaryType.class)
 @Table(name = "\"alarm\"", indexes = {
-    @Index(name = "user_id_idx", columnList = "user_id")
+    @Index(name = "user_id_deleted_at_id_idx", columnList = "user_id, deleted_at, id DESC"),
+    @Index(name = "coalesce_idx", columnList = "user_id, alarm_type, target_id"),
+    @Index(name = "registered_at_idx", columnList = "registered_at"),
+    // 포스트 삭제시 포스트에 대한 알람 정리
+    @Index(name = "target_id_idx", columnList = "target_id"),
+    @Index(name = "alarm_deleted_at_idx", columnList = "deleted_at")
 })
 @SQLDelete(sql = "UPDATE \"alarm\" SET deleted_at = NOW() where id=?")
 @Where(clause = "deleted_at is NULL")
 public class AlarmEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Integer id;
+    public static final int MAX_LATEST_ACTORS = 3;
+
+    @Id @GeneratedValue(generator = SnsIdGenerator.NAME)
+    @GenericGenerator(name = SnsIdGenerator.NAME, strategy = SnsIdGenerator.STRATEGY)
+    private Long id;
 
     // 알람을 받은 사람
     @ManyToOne(fetch = FetchType.LAZY)
@@ -45,6 +57,30 @@ public class AlarmEntity {
     @Column(columnDefinition = "json")
     private AlarmArgs args;
 
+    // 알람을 뭉치는 기준 (user, alarmType, targetId)
+    @Column(name = "target_id")
+    private Long targetId;
+
+    // OO외 N명 -> 뭉쳐진 알람을 발생시킨 서로 다른 사람 수 (같은 사람이 여러번 해도 1명)
+    @Column(name = "actor_count", columnDefinition = "INT DEFAULT 1 NOT NULL")
+    private int actorCount = 1;
+
+    // 최근 알람을 발생시킨 사람 (최신순, 최대 MAX_LATEST_ACTORS 명)
+    @Type(type = "jsonb")
+    @Column(name = "latest_actor_ids", columnDefinition = "json")
+    private List<Long> latestActorIds = new ArrayList<>();
+
+    // 뭉쳐진 알람을 발생시킨 사람 전체 (actorCount 중복 제거용, 목록 조회에서는 읽지 않는다)
+    // coalesce window 안의 서로 다른 사람 수 만큼만 커진다.
+    @Type(type = "jsonb")
+    @Column(name = "actor_ids", columnDefinition = "json")
+    private List<Long> actorIds = new ArrayList<>();
+
+    // AlarmWriter 스레드와 호출 스레드가 같은 row 를 동시에 뭉치면 나중에 커밋하는 쪽이 실패한다. (lost update 방지)
+    @Version
+    @Column(name = "version", columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private long version;
+
     @Column(name = "registered_at")
     private Timestamp registeredAt;
 
@@ -69,8 +105,37 @@ public class AlarmEntity {
         entity.setUser(userEntity);
         entity.setAlarmType(alarmType);
         entity.setArgs(args);
+        entity.setTargetId(args.getTargetId());
+        entity.setLatestActorIds(new ArrayList<>(List.of(args.getFromUserId())));
+        entity.setActorIds(new ArrayList<>(List.of(args.getFromUserId())));
         return entity;
     }
+
+    // 같은 (user, alarmType, targetId) 알람을 하나로 뭉친다. args 는 가장 최근에 발생시킨 사람 기준
+    public void coalesce(AlarmArgs args) {
+        Long actorId = args.getFromUserId();
+
+        List<Long> latestIds = new ArrayList<>();
+        latestIds.add(actorId);
+        if (latestActorIds != null) {
+            latestActorIds.stream()
+                    .filter(id -> !id.equals(actorId))
+                    .limit(MAX_LATEST_ACTORS - 1)
+                    .forEach(latestIds::add);
+        }
+
+        // 처음 알람을 발생시킨 사람일 때만 센다. (actor_ids 가 없던 row 는 latest_actor_ids 부터 시작)
+        List<Long> knownIds = new ArrayList<>(actorIds != null ? actorIds
+                : latestActorIds != null ? latestActorIds : List.of());
+        if (!knownIds.contains(actorId)) {
+            knownIds.add(actorId);
+            this.actorCount++;
+        }
+
+        this.actorIds = knownIds;
+        this.latestActorIds = latestIds;
+        this.args = new AlarmArgs(actorId, args.getTargetId());
+    }
 }
 
 
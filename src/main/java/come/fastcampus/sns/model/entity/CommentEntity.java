@@ -1,7 +1,9 @@
 package come.fastcampus.sns.model.entity;
 
+import come.fastcampus.sns.configuration.SnsIdGenerator;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 
@@ -13,19 +15,21 @@ import java.time.Instant;
 @Setter
 @Entity
 @Table(name = "\"comment\"", indexes = {
-        @Index(name = "post_id_idx", columnList = "post_id")
+        @Index(name = "comment_post_id_idx", columnList = "post_id, id"),
+        @Index(name = "comment_deleted_at_idx", columnList = "deleted_at")
 })
 @SQLDelete(sql = "UPDATE \"comment\" SET deleted_at = NOW() where id=?")
 @Where(clause = "deleted_at is NULL")
 public class CommentEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Integer id;
+    @Id @GeneratedValue(generator = SnsIdGenerator.NAME)
+    @GenericGenerator(name = SnsIdGenerator.NAME, strategy = SnsIdGenerator.STRATEGY)
+    private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private UserEntity user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private PostEntity post;
 
     private String comment;
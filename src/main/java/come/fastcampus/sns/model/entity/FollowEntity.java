@@ -0,0 +1,51 @@
+package come.fastcampus.sns.model.entity;
+
+import come.fastcampus.sns.configuration.SnsIdGenerator;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "\"follow\"", indexes = {
+        // 유저당 같은 유저 팔로우 1개
+        @Index(name = FollowEntity.FOLLOWER_ID_FOLLOWING_ID_UK, columnList = "follower_id, following_id", unique = true),
+        // 포스트 작성시 작성자의 팔로워 조회 (fan-out)
+        @Index(name = "following_id_idx", columnList = "following_id")
+})
+public class FollowEntity {
+
+    public static final String FOLLOWER_ID_FOLLOWING_ID_UK = "follower_id_following_id_uk";
+
+    @Id @GeneratedValue(generator = SnsIdGenerator.NAME)
+    @GenericGenerator(name = SnsIdGenerator.NAME, strategy = SnsIdGenerator.STRATEGY)
+    private Long id;
+
+    // 팔로우 하는 사람
+    @ManyToOne(fetch = FetchType.LAZY)
+    private UserEntity follower;
+
+    // 팔로우 받는 사람
+    @ManyToOne(fetch = FetchType.LAZY)
+    private UserEntity following;
+
+    @Column(name = "registered_at")
+    private Timestamp registeredAt;
+
+    @PrePersist
+    void registeredAt() {
+        this.registeredAt = Timestamp.from(Instant.now());
+    }
+
+    public static FollowEntity of(UserEntity follower, UserEntity following) {
+        FollowEntity entity = new FollowEntity();
+        entity.setFollower(follower);
+        entity.setFollowing(following);
+        return entity;
+    }
+}
@@ -1,7 +1,9 @@
 package come.fastcampus.sns.model.entity;
 
+import come.fastcampus.sns.configuration.SnsIdGenerator;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 
@@ -12,13 +14,21 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "\"Like\"")
+@Table(name = "\"Like\"", indexes = {
+        @Index(name = "like_post_id_idx", columnList = "post_id"),
+        // 유저당 포스트 좋아요 1개 (동시 요청에도 중복 row 가 생기지 않도록 DB 에서 보장)
+        @Index(name = LikeEntity.USER_ID_POST_ID_UK, columnList = "user_id, post_id", unique = true),
+        @Index(name = "like_deleted_at_idx", columnList = "deleted_at")
+})
 @SQLDelete(sql = "UPDATE \"Like\" SET deleted_at = NOW() where id=?")
 @Where(clause = "deleted_at is NULL")
 public class LikeEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Integer id;
+    public static final String USER_ID_POST_ID_UK = "user_id_post_id_uk";
+
+    @Id @GeneratedValue(generator = SnsIdGenerator.NAME)
+    @GenericGenerator(name = SnsIdGenerator.NAME, strategy = SnsIdGenerator.STRATEGY)
+    private Long id;
 
     // 좋아요 한개당 -> row 1개
 
@@ -1,7 +1,9 @@
 package come.fastcampus.sns.model.entity;
 
+import come.fastcampus.sns.configuration.SnsIdGenerator;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 
@@ -12,13 +14,18 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "\"post\"")
+@Table(name = "\"post\"", indexes = {
+        // 작성자별 최신 포스트 (hybrid 타임라인에서 읽을 때 가져오는 작성자)
+        @Index(name = "user_id_id_idx", columnList = "user_id, id"),
+        @Index(name = "post_deleted_at_idx", columnList = "deleted_at")
+})
 @SQLDelete(sql = "UPDATE \"post\" SET deleted_at = NOW() where id=?")
 @Where(clause = "deleted_at is NULL")
 public class PostEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Integer id;
+    @Id @GeneratedValue(generator = SnsIdGenerator.NAME)
+    @GenericGenerator(name = SnsIdGenerator.NAME, strategy = SnsIdGenerator.STRATEGY)
+    private Long id;
 
     @Column(name = "title")
     private String title;
@@ -29,6 +36,11 @@ public class PostEntity {
     @ManyToOne
     private UserEntity user;
 
+    // 좋아요 수 (LikeEntity 를 매번 count 하지 않도록 비정규화, LikeCountReconcileScheduler 가 보정)
+    // 포스트 수정시 읽어둔 값으로 덮어쓰지 않도록 UPDATE 에서 제외한다. (JPQL 증감 쿼리로만 변경)
+    @Column(name = "like_count", columnDefinition = "BIGINT DEFAULT 0 NOT NULL", updatable = false)
+    private long likeCount;
+
     @Column(name = "registered_at")
     private Timestamp registeredAt;
 
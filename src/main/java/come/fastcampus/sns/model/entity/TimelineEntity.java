@@ -0,0 +1,54 @@
+package come.fastcampus.sns.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * 유저별 홈 타임라인 (fan-out-on-write)
+ * 포스트가 작성되면 작성자의 팔로워마다 (user_id, post_id) row 를 하나씩 만든다. 조회는 (user_id, post_id) PK range scan 한번.
+ * TimelineService 가 JDBC batch 로 직접 insert 하므로 연관관계 대신 id 만 갖는다.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "\"timeline\"", indexes = {
+        // 언팔로우시 해당 작성자의 포스트 제거
+        @Index(name = "user_id_author_id_idx", columnList = "user_id, author_id"),
+        // 삭제된 포스트 정리
+        @Index(name = "timeline_post_id_idx", columnList = "post_id")
+})
+@IdClass(TimelineEntity.Key.class)
+public class TimelineEntity {
+
+    // 타임라인 주인
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Id
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    // 포스트 작성자
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "registered_at")
+    private Timestamp registeredAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Long userId;
+        private Long postId;
+    }
+}
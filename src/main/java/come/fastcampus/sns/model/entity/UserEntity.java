@@ -1,8 +1,11 @@
 package come.fastcampus.sns.model.entity;
 
+import come.fastcampus.sns.configuration.SnsIdGenerator;
 import come.fastcampus.sns.model.UserRole;
+import come.fastcampus.sns.repository.UserCacheEvictListener;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 
@@ -13,13 +16,19 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "\"user\"")
+@Table(name = "\"user\"", indexes = {
+        @Index(name = UserEntity.USER_NAME_UK, columnList = "user_name", unique = true)
+})
 @SQLDelete(sql = "UPDATE \"user\" SET deleted_at = NOW() where id=?")
 @Where(clause = "deleted_at is NULL")
+@EntityListeners(UserCacheEvictListener.class)
 public class UserEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Integer id;
+    public static final String USER_NAME_UK = "user_name_uk";
+
+    @Id @GeneratedValue(generator = SnsIdGenerator.NAME)
+    @GenericGenerator(name = SnsIdGenerator.NAME, strategy = SnsIdGenerator.STRATEGY)
+    private Long id;
 
     @Column(name = "user_name")
     private String userName;
@@ -31,6 +40,14 @@ public class UserEntity {
     @Enumerated(EnumType.STRING)
     private UserRole role = UserRole.USER;
 
+    // 마지막으로 읽은 알람 id (이보다 큰 id 의 알람이 안 읽은 알람)
+    @Column(name = "last_read_alarm_id")
+    private Long lastReadAlarmId;
+
+    // 팔로워 수 (hybrid 타임라인에서 fan-out 대상인지 판단, 매번 follow 를 count 하지 않도록 비정규화)
+    @Column(name = "follower_count", columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private long followerCount;
+
     @Column(name = "registered_at")
     private Timestamp registeredAt;
 
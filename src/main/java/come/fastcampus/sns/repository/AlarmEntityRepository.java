@@ -1,11 +1,51 @@
 package come.fastcampus.sns.repository;
 
+import come.fastcampus.sns.model.Alarm;
+import come.fastcampus.sns.model.AlarmType;
 import come.fastcampus.sns.model.entity.AlarmEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface AlarmEntityRepository extends JpaRepository<AlarmEntity, Integer> {
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Optional;
 
-    Page<AlarmEntity> findAllByUserId(Integer userId, Pageable pageable);
+public interface AlarmEntityRepository extends JpaRepository<AlarmEntity, Long> {
+
+    // (user_id, deleted_at, id DESC) 인덱스 순서대로 읽고, 엔티티 대신 응답에 필요한 컬럼만 Alarm 으로 바로 조회한다.
+    @Query(value = "SELECT new come.fastcampus.sns.model.Alarm(entity.id, entity.alarmType, entity.args, entity.actorCount, entity.latestActorIds, entity.registeredAt, entity.updatedAt, entity.deletedAt) " +
+            "FROM AlarmEntity entity WHERE entity.user.id = :userId ORDER BY entity.id DESC",
+            countQuery = "SELECT COUNT(entity) FROM AlarmEntity entity WHERE entity.user.id = :userId")
+    Page<Alarm> findAllByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // 알람을 뭉칠 대상 : registeredAt 이후에 만들어진 같은 (user, alarmType, targetId) 알람 중 아직 읽지 않은 가장 최근 것
+    Optional<AlarmEntity> findFirstByUserIdAndAlarmTypeAndTargetIdAndRegisteredAtAfterAndIdGreaterThanOrderByIdDesc(
+            Long userId, AlarmType alarmType, Long targetId, Timestamp registeredAt, Long lastReadAlarmId);
+
+    long countByUserIdAndIdGreaterThan(Long userId, Long id);
+
+    @Query("SELECT MAX(entity.id) FROM AlarmEntity entity WHERE entity.user.id = :userId")
+    Long findMaxIdByUserId(@Param("userId") Long userId);
+
+    // 포스트에 대한 알람 (targetId = postId), 동시에 뭉치고 있던 AlarmWriter 가 삭제를 덮어쓰지 않도록 version 도 올린다.
+    @Modifying
+    @Transactional
+    @Query("UPDATE AlarmEntity entity SET entity.deletedAt = CURRENT_TIMESTAMP, entity.version = entity.version + 1 WHERE entity.targetId = :postId AND entity.alarmType IN :alarmTypes AND entity.deletedAt IS NULL")
+    int softDeleteAllByTargetId(@Param("postId") Long postId, @Param("alarmTypes") Collection<AlarmType> alarmTypes);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM \"alarm\" WHERE deleted_at < :deletedAt LIMIT :limit", nativeQuery = true)
+    int purgeDeletedBefore(@Param("deletedAt") Timestamp deletedAt, @Param("limit") int limit);
+
+    // registeredAt 이전에 만들어진 알람을 (soft delete 된 것 포함) 최대 limit 개 hard delete 한다.
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM \"alarm\" WHERE registered_at < :registeredAt LIMIT :limit", nativeQuery = true)
+    int deleteAllRegisteredBefore(@Param("registeredAt") Timestamp registeredAt, @Param("limit") int limit);
 }
@@ -1,21 +1,37 @@
 package come.fastcampus.sns.repository;
 
+import come.fastcampus.sns.model.Comment;
 import come.fastcampus.sns.model.entity.CommentEntity;
 import come.fastcampus.sns.model.entity.PostEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
-public interface CommentEntityRepository extends JpaRepository<CommentEntity, Integer> {
+public interface CommentEntityRepository extends JpaRepository<CommentEntity, Long> {
 
-    Page<CommentEntity> findAllByPost(PostEntity post, Pageable pageable);
+    @Query(value = "SELECT entity FROM CommentEntity entity JOIN FETCH entity.user WHERE entity.post = :post",
+            countQuery = "SELECT COUNT(entity) FROM CommentEntity entity WHERE entity.post = :post")
+    Page<CommentEntity> findAllByPost(@Param("post") PostEntity post, Pageable pageable);
 
+    // (post_id, id) 인덱스 range scan 한번으로 한 페이지를 읽는다. 엔티티 대신 필요한 컬럼만 Comment 로 바로 조회한다.
+    @Query("SELECT new come.fastcampus.sns.model.Comment(entity.id, entity.comment, author.userName, entity.post.id, entity.registeredAt, entity.updatedAt, entity.deletedAt) " +
+            "FROM CommentEntity entity JOIN entity.user author " +
+            "WHERE entity.post.id = :postId AND entity.id < :cursor ORDER BY entity.id DESC")
+    Slice<Comment> findAllByPostId(@Param("postId") Long postId, @Param("cursor") Long cursor, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CommentEntity entity SET entity.deletedAt = CURRENT_TIMESTAMP WHERE entity.post.id = :postId AND entity.deletedAt IS NULL")
+    int softDeleteAllByPostId(@Param("postId") Long postId);
+
+    // soft delete 된 지 오래된 row 를 최대 limit 개 hard delete 한다.
     @Modifying
     @Transactional
-    @Query("UPDATE CommentEntity entity SET deleted_at * NOW() where entity.post =:post")
-    void deleteAllByPost(@Param("post") PostEntity post);
+    @Query(value = "DELETE FROM \"comment\" WHERE deleted_at < :deletedAt LIMIT :limit", nativeQuery = true)
+    int purgeDeletedBefore(@Param("deletedAt") Timestamp deletedAt, @Param("limit") int limit);
 }
@@ -0,0 +1,62 @@
+package come.fastcampus.sns.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * 이 노드에 연결된 SSE 연결 (userId -> 연결 목록, 탭마다 연결이 하나씩 생길 수 있다.)
+ * 노드당 최대 연결 수를 넘으면 새 연결을 받지 않는다.
+ */
+@Repository
+public class EmitterRepository {
+
+    private final Map<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final int maxConnections;
+
+    public EmitterRepository(@Value("${alarm.sse.max-connections:10000}") int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public boolean save(Long userId, SseEmitter emitter) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            return false;
+        }
+
+        emitters.compute(userId, (key, set) -> {
+            Set<SseEmitter> result = set == null ? ConcurrentHashMap.newKeySet() : set;
+            result.add(emitter);
+            return result;
+        });
+        return true;
+    }
+
+    public void delete(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (key, set) -> {
+            if (set.remove(emitter)) {
+                connections.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    public Set<SseEmitter> get(Long userId) {
+        return emitters.getOrDefault(userId, Set.of());
+    }
+
+    public void forEach(BiConsumer<Long, SseEmitter> action) {
+        emitters.forEach((userId, set) -> set.forEach(emitter -> action.accept(userId, emitter)));
+    }
+
+    public int size() {
+        return connections.get();
+    }
+}
@@ -0,0 +1,27 @@
+package come.fastcampus.sns.repository;
+
+import come.fastcampus.sns.model.entity.FollowEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface FollowEntityRepository extends JpaRepository<FollowEntity, Long> {
+
+    boolean existsByFollowerIdAndFollowingId(Long followerId, Long followingId);
+
+    @Query("SELECT entity.follower.id FROM FollowEntity entity WHERE entity.following.id = :userId")
+    List<Long> findFollowerIdsByFollowingId(@Param("userId") Long userId);
+
+    // 팔로워가 threshold 명 이상이라 fan-out 하지 않는 (조회시 가져오는) 팔로잉 유저
+    @Query("SELECT entity.following.id FROM FollowEntity entity WHERE entity.follower.id = :userId AND entity.following.followerCount >= :threshold")
+    List<Long> findFollowingIdsByFollowerCountAtLeast(@Param("userId") Long userId, @Param("threshold") long threshold);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM FollowEntity entity WHERE entity.follower.id = :followerId AND entity.following.id = :followingId")
+    int deleteByFollowerIdAndFollowingId(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
+}
@@ -9,15 +9,16 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
 
-public interface LikeEntityRepository extends JpaRepository<LikeEntity, Integer> {
+public interface LikeEntityRepository extends JpaRepository<LikeEntity, Long> {
 
     Optional<LikeEntity> findByUserAndPost(UserEntity user, PostEntity post);
 
 //    @Query(value = "SELECT COUNT(*) FROM LikeEntity entity WHERE entity.post =:post")
-//    Integer countByPost(@Param("post") PostEntity post);
+//    Long countByPost(@Param("post") PostEntity post);
 
     long countByPost(PostEntity post);
 
@@ -25,6 +26,12 @@ public interface LikeEntityRepository extends JpaRepository<LikeEntity, Integer>
 
     @Modifying
     @Transactional
-    @Query("UPDATE LikeEntity entity SET deleted_at * NOW() where entity.post =:post")
-    void deleteAllByPost(@Param("post") PostEntity post);
+    @Query("UPDATE LikeEntity entity SET entity.deletedAt = CURRENT_TIMESTAMP WHERE entity.post.id = :postId AND entity.deletedAt IS NULL")
+    int softDeleteAllByPostId(@Param("postId") Long postId);
+
+    // soft delete 된 지 오래된 row 를 최대 limit 개 hard delete 한다.
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM \"Like\" WHERE deleted_at < :deletedAt LIMIT :limit", nativeQuery = true)
+    int purgeDeletedBefore(@Param("deletedAt") Timestamp deletedAt, @Param("limit") int limit);
 }
@@ -0,0 +1,64 @@
+package come.fastcampus.sns.repository;
+
+import come.fastcampus.sns.model.entity.PostEntity;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 여러 포스트를 한번에 만들 때는 영속성 컨텍스트를 거치지 않고 JDBC batch 로 직접 insert 한다.
+ * (MySQL 은 rewriteBatchedStatements=true 로 multi-row INSERT 한 문장이 된다. DataSourceConfig)
+ * id 는 PostEntity 와 같은 id generator (SnsIdGenerator) 에서 받고, @PrePersist 대신 registered_at 을 직접 넣는다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PostBulkRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO \"post\" (id, title, body, user_id, like_count, registered_at) VALUES (?, ?, ?, ?, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${post.bulk.jdbc-batch-size:500}")
+    private int batchSize;
+
+    // 생성한 id 를 entity 에 채워서 반환한다. (트랜잭션 안에서 호출)
+    public List<PostEntity> saveAll(List<PostEntity> entities) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator idGenerator = session.getFactory().getMetamodel().entityPersister(PostEntity.class).getIdentifierGenerator();
+        Timestamp now = Timestamp.from(Instant.now());
+        for (PostEntity entity : entities) {
+            entity.setId((Long) idGenerator.generate(session, entity));
+            entity.setRegisteredAt(now);
+        }
+
+        for (int from = 0; from < entities.size(); from += batchSize) {
+            List<PostEntity> batch = entities.subList(from, Math.min(from + batchSize, entities.size()));
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+                    for (PostEntity entity : batch) {
+                        ps.setLong(1, entity.getId());
+                        ps.setString(2, entity.getTitle());
+                        ps.setString(3, entity.getBody());
+                        ps.setLong(4, entity.getUser().getId());
+                        ps.setTimestamp(5, now);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                return null;
+            });
+        }
+        return entities;
+    }
+}
@@ -0,0 +1,95 @@
+package come.fastcampus.sns.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import come.fastcampus.sns.model.Post;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Post DTO read-through 캐시
+ * - post : id 기준. 크기 제한 (Caffeine W-TinyLFU) + TTL, 수정 / 삭제시 해당 id 만 무효화한다.
+ * - post-first-page : 전체 피드 첫 페이지. 새 글이 바로 보이지 않아도 되므로 짧은 TTL 로만 갱신하고, 수정 / 삭제시에는 비운다.
+ * hit / miss / eviction 은 "cache.*{cache=post|post-first-page}" 메트릭으로 노출된다.
+ */
+@Slf4j
+@Repository
+public class PostCacheRepository {
+
+    private static final String CACHE_NAME = "post";
+    private static final String FIRST_PAGE_CACHE_NAME = "post-first-page";
+
+    private final Cache<Long, Post> cache;
+    // key : 페이지 크기 + 정렬
+    private final Cache<String, Page<Post>> firstPageCache;
+
+    public PostCacheRepository(@Value("${cache.post.expired-time-ms:600000}") long expiredTimeMs,
+                               @Value("${cache.post.maximum-size:10000}") long maximumSize,
+                               @Value("${cache.post.first-page.expired-time-ms:3000}") long firstPageExpiredTimeMs,
+                               MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(expiredTimeMs))
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.firstPageCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(firstPageExpiredTimeMs))
+                .maximumSize(100)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, firstPageCache, FIRST_PAGE_CACHE_NAME);
+    }
+
+    // loader 가 null 을 반환하면 (없는 포스트) 캐싱하지 않는다.
+    public Post get(Long postId, Function<Long, Post> loader) {
+        return cache.get(postId, loader);
+    }
+
+    // 캐시에 없는 id 만 loader 로 한번에 가져온다. 없는 포스트는 결과에서 빠진다.
+    public Map<Long, Post> getAll(Collection<Long> postIds, Function<Set<Long>, Map<Long, Post>> loader) {
+        return cache.getAll(postIds, keys -> {
+            Set<Long> missing = new HashSet<>();
+            keys.forEach(missing::add);
+            return loader.apply(missing);
+        });
+    }
+
+    public Page<Post> getFirstPage(Pageable pageable, Supplier<Page<Post>> loader) {
+        return firstPageCache.get(pageable.getPageSize() + ":" + pageable.getSort(), key -> loader.get());
+    }
+
+    // 커밋 전에 다른 요청이 이전 값을 다시 캐싱할 수 있으므로 커밋 이후에 한번 더 지운다.
+    public void evict(Long postId) {
+        log.debug("Evict Post from cache {}", postId);
+        invalidate(postId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(postId);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long postId) {
+        cache.invalidate(postId);
+        firstPageCache.invalidateAll();
+    }
+}
@@ -4,9 +4,67 @@ import come.fastcampus.sns.model.entity.PostEntity;
 import come.fastcampus.sns.model.entity.UserEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface PostEntityRepository extends JpaRepository<PostEntity, Integer> {
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PostEntityRepository extends JpaRepository<PostEntity, Long> {
 
     Page<PostEntity> findAllByUser(UserEntity entity, Pageable pageable);
+
+    // 작성자(user)를 같이 fetch join 해서 Post.fromEntity 에서 row 마다 user 를 조회하지 않도록 한다. (count 는 join 없이)
+    @Query(value = "SELECT entity FROM PostEntity entity JOIN FETCH entity.user",
+            countQuery = "SELECT COUNT(entity) FROM PostEntity entity")
+    Page<PostEntity> findAllWithUser(Pageable pageable);
+
+    @Query(value = "SELECT entity FROM PostEntity entity JOIN FETCH entity.user WHERE entity.user = :user",
+            countQuery = "SELECT COUNT(entity) FROM PostEntity entity WHERE entity.user = :user")
+    Page<PostEntity> findAllWithUserByUser(@Param("user") UserEntity user, Pageable pageable);
+
+    // keyset(cursor) 페이징 : id < cursor 인 포스트를 id 역순으로 조회한다. offset 스캔과 count 쿼리가 없다.
+    @Query("SELECT entity FROM PostEntity entity JOIN FETCH entity.user WHERE entity.id < :cursor ORDER BY entity.id DESC")
+    Slice<PostEntity> findAllWithUserByIdLessThan(@Param("cursor") Long cursor, Pageable pageable);
+
+    @Query("SELECT entity FROM PostEntity entity JOIN FETCH entity.user WHERE entity.user = :user AND entity.id < :cursor ORDER BY entity.id DESC")
+    Slice<PostEntity> findAllByUser(@Param("user") UserEntity user, @Param("cursor") Long cursor, Pageable pageable);
+
+    @Query("SELECT entity FROM PostEntity entity JOIN FETCH entity.user WHERE entity.id IN :ids")
+    List<PostEntity> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT entity.id FROM PostEntity entity WHERE entity.user.id = :userId AND entity.id < :cursor ORDER BY entity.id DESC")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, @Param("cursor") Long cursor, Pageable pageable);
+
+    @Query("SELECT entity.likeCount FROM PostEntity entity WHERE entity.id = :postId")
+    Optional<Long> findLikeCountById(@Param("postId") Long postId);
+
+    // read-modify-write 없이 DB 에서 원자적으로 증가시킨다.
+    @Modifying
+    @Transactional
+    @Query("UPDATE PostEntity entity SET entity.likeCount = entity.likeCount + :delta WHERE entity.id = :postId")
+    int increaseLikeCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    // id 가 연속적이지 않으므로 (snowflake) 실제 id 를 keyset 으로 훑는다.
+    @Query("SELECT entity.id FROM PostEntity entity WHERE entity.id > :id ORDER BY entity.id")
+    List<Long> findIdsGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM \"post\" WHERE deleted_at < :deletedAt LIMIT :limit", nativeQuery = true)
+    int purgeDeletedBefore(@Param("deletedAt") Timestamp deletedAt, @Param("limit") int limit);
+
+    // ids 포스트의 like_count 를 Like row 기준으로 다시 계산한다.
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE \"post\" p SET like_count = " +
+            "(SELECT COUNT(*) FROM \"Like\" l WHERE l.post_id = p.id AND l.deleted_at IS NULL) " +
+            "WHERE p.id IN (:ids)", nativeQuery = true)
+    int reconcileLikeCount(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,78 @@
+package come.fastcampus.sns.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 한 유저의 최근 타임라인 포스트 id 를 최신순으로 capacity 개까지 들고 있는 ring buffer
+ * 가득 차면 가장 오래된 id 를 버린다. complete 는 timeline 테이블의 모든 row 를 들고 있는지 여부
+ * (false 면 buffer 보다 오래된 포스트는 테이블에서 읽어야 한다)
+ */
+class TimelineBuffer {
+
+    private final long[] postIds;
+    // 가장 최신 id 의 위치
+    private int head;
+    private int size;
+    private boolean complete;
+    // 테이블에서 채우기 전에는 답하지 않는다.
+    private boolean filled;
+
+    TimelineBuffer(int capacity) {
+        this.postIds = new long[capacity];
+    }
+
+    // 테이블에서 읽은 id 로 채운다. 채우는 동안 fan-out 으로 들어온 id 는 그대로 두고 중복은 무시한다.
+    synchronized void fill(List<Long> newestFirst, boolean complete) {
+        this.complete = complete;
+        newestFirst.forEach(this::add);
+        this.filled = true;
+    }
+
+    // 보통 가장 최신이라 head 에 들어가고, fan-out 순서가 뒤바뀐 경우에만 자리를 찾아 밀어낸다.
+    synchronized void add(long postId) {
+        int position = 0;
+        while (position < size && postIds[index(position)] > postId) {
+            position++;
+        }
+        if (position < size && postIds[index(position)] == postId) {
+            return;
+        }
+        if (size == postIds.length) {
+            if (position == size) {
+                complete = false;
+                return;
+            }
+            size--;
+            complete = false;
+        }
+
+        head = (head - 1 + postIds.length) % postIds.length;
+        for (int i = 0; i < position; i++) {
+            postIds[index(i)] = postIds[index(i + 1)];
+        }
+        postIds[index(position)] = postId;
+        size++;
+    }
+
+    /**
+     * cursor 보다 작은 id 를 최신순으로 limit 개 반환한다. buffer 만으로 답할 수 없으면 null
+     */
+    synchronized List<Long> page(long cursor, int limit) {
+        if (!filled) {
+            return null;
+        }
+        List<Long> page = new ArrayList<>(limit);
+        for (int i = 0; i < size && page.size() < limit; i++) {
+            long postId = postIds[index(i)];
+            if (postId < cursor) {
+                page.add(postId);
+            }
+        }
+        return page.size() == limit || complete ? page : null;
+    }
+
+    private int index(int position) {
+        return (head + position) % postIds.length;
+    }
+}
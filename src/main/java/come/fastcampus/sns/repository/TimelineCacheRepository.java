@@ -0,0 +1,111 @@
+package come.fastcampus.sns.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * 최근에 타임라인을 읽은 (active) 유저의 타임라인을 메모리 ring buffer 로 들고 있는다.
+ * 한동안 읽지 않은 유저는 만료되고, 다음 조회시 timeline 테이블에서 다시 채운다.
+ * hybrid 타임라인에서 조회시 가져오는 작성자 목록 (유저별) 과 그 작성자의 최근 포스트 id (작성자별, 여러 유저가 공유) 도 짧게 캐싱한다.
+ */
+@Repository
+public class TimelineCacheRepository {
+
+    private static final String CACHE_NAME = "timeline";
+    private static final String PULL_AUTHOR_CACHE_NAME = "timeline-pull-author";
+    private static final String AUTHOR_POST_CACHE_NAME = "timeline-author-post";
+
+    private final Cache<Long, TimelineBuffer> cache;
+    private final Cache<Long, List<Long>> pullAuthorCache;
+    private final Cache<Long, List<Long>> authorPostCache;
+    private final int bufferSize;
+
+    public TimelineCacheRepository(@Value("${timeline.buffer-size:800}") int bufferSize,
+                                   @Value("${cache.timeline.expired-time-ms:86400000}") long expiredTimeMs,
+                                   @Value("${cache.timeline.maximum-size:100000}") long maximumSize,
+                                   @Value("${cache.timeline.pull-author.expired-time-ms:60000}") long pullAuthorExpiredTimeMs,
+                                   @Value("${cache.timeline.author-post.expired-time-ms:5000}") long authorPostExpiredTimeMs,
+                                   MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMillis(expiredTimeMs))
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.pullAuthorCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(pullAuthorExpiredTimeMs))
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.authorPostCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(authorPostExpiredTimeMs))
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, pullAuthorCache, PULL_AUTHOR_CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, authorPostCache, AUTHOR_POST_CACHE_NAME);
+    }
+
+    public boolean contains(Long userId) {
+        return cache.getIfPresent(userId) != null;
+    }
+
+    /**
+     * 빈 buffer 를 먼저 등록해서, 테이블을 읽는 동안 들어온 fan-out 도 놓치지 않는다.
+     * loader : 가져올 개수를 받아 timeline 테이블의 최근 포스트 id 를 최신순으로 반환
+     */
+    public void load(Long userId, IntFunction<List<Long>> loader) {
+        TimelineBuffer buffer = new TimelineBuffer(bufferSize);
+        if (cache.asMap().putIfAbsent(userId, buffer) != null) {
+            return;
+        }
+        try {
+            List<Long> newestFirst = loader.apply(bufferSize);
+            buffer.fill(newestFirst, newestFirst.size() < bufferSize);
+        } catch (RuntimeException e) {
+            cache.asMap().remove(userId, buffer);
+            throw e;
+        }
+    }
+
+    public Optional<List<Long>> page(Long userId, Long cursor, int limit) {
+        TimelineBuffer buffer = cache.getIfPresent(userId);
+        return buffer == null ? Optional.empty() : Optional.ofNullable(buffer.page(cursor, limit));
+    }
+
+    // active 유저에게만 넣는다. 나머지는 다음 조회시 테이블에서 읽힌다.
+    public void push(Long userId, Long postId) {
+        TimelineBuffer buffer = cache.getIfPresent(userId);
+        if (buffer != null) {
+            buffer.add(postId);
+        }
+    }
+
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+        pullAuthorCache.invalidate(userId);
+    }
+
+    public List<Long> getPullAuthorIds(Long userId, Function<Long, List<Long>> loader) {
+        return pullAuthorCache.get(userId, loader);
+    }
+
+    public List<Long> getAuthorPostIds(Long authorId, Function<Long, List<Long>> loader) {
+        return authorPostCache.get(authorId, loader);
+    }
+
+    public void evictAuthorPostIds(Long authorId) {
+        authorPostCache.invalidate(authorId);
+    }
+}
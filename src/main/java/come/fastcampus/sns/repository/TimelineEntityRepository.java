@@ -0,0 +1,30 @@
+package come.fastcampus.sns.repository;
+
+import come.fastcampus.sns.model.entity.TimelineEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public interface TimelineEntityRepository extends JpaRepository<TimelineEntity, TimelineEntity.Key> {
+
+    // cursor(포스트 id) 보다 오래된 타임라인 포스트 id 를 최신순으로 조회한다.
+    @Query("SELECT entity.postId FROM TimelineEntity entity WHERE entity.userId = :userId AND entity.postId < :cursor ORDER BY entity.postId DESC")
+    List<Long> findPostIdsByUserId(@Param("userId") Long userId, @Param("cursor") Long cursor, Pageable pageable);
+
+    // soft delete 된 포스트의 타임라인 row 를 최대 limit 개 지운다.
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM \"timeline\" WHERE post_id IN (SELECT id FROM \"post\" WHERE deleted_at < :deletedAt) LIMIT :limit", nativeQuery = true)
+    int purgeDeletedPostsBefore(@Param("deletedAt") Timestamp deletedAt, @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TimelineEntity entity WHERE entity.userId = :userId AND entity.authorId = :authorId")
+    int deleteAllByUserIdAndAuthorId(@Param("userId") Long userId, @Param("authorId") Long authorId);
+}
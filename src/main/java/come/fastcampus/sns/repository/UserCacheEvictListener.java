@@ -0,0 +1,44 @@
+package come.fastcampus.sns.repository;
+
+import come.fastcampus.sns.model.entity.UserEntity;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * UserEntity 가 수정되거나 (soft) 삭제되면 캐싱된 User 를 무효화한다.
+ * 커밋 전에 다른 요청이 이전 값을 다시 캐싱할 수 있으므로 커밋 이후에 한번 더 지운다.
+ * Hibernate 가 SpringBeanContainer 로 생성하므로 캐시 빈이 없는 환경(슬라이스 테스트 등)에서는 아무것도 하지 않는다.
+ */
+public class UserCacheEvictListener {
+
+    private final ObjectProvider<UserCacheRepository> userCacheRepository;
+
+    public UserCacheEvictListener(ObjectProvider<UserCacheRepository> userCacheRepository) {
+        this.userCacheRepository = userCacheRepository;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void evict(UserEntity entity) {
+        UserCacheRepository cache = userCacheRepository.getIfAvailable();
+        if (cache == null) {
+            return;
+        }
+
+        String userName = entity.getUserName();
+        cache.evict(userName);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(userName);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package come.fastcampus.sns.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import come.fastcampus.sns.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * JwtTokenFilter 에서 요청마다 user 테이블을 조회하지 않도록 인증된 User 를 userName 기준으로 캐싱한다.
+ * TTL + 최대 크기로 bounded 되며, hit / miss / eviction 은 "cache.*{cache=user}" 메트릭으로 노출된다.
+ */
+@Slf4j
+@Repository
+public class UserCacheRepository {
+
+    private static final String CACHE_NAME = "user";
+
+    private final Cache<String, User> cache;
+
+    public UserCacheRepository(@Value("${cache.user.expired-time-ms:300000}") long expiredTimeMs,
+                               @Value("${cache.user.maximum-size:10000}") long maximumSize,
+                               MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(expiredTimeMs))
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public void setUser(User user) {
+        log.debug("Set User to cache {}", user.getUsername());
+        cache.put(user.getUsername(), user);
+    }
+
+    public Optional<User> getUser(String userName) {
+        return Optional.ofNullable(cache.getIfPresent(userName));
+    }
+
+    public void evict(String userName) {
+        log.debug("Evict User from cache {}", userName);
+        cache.invalidate(userName);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
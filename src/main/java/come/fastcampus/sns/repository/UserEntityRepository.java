@@ -1,11 +1,46 @@
 package come.fastcampus.sns.repository;
 
 import come.fastcampus.sns.model.entity.UserEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
-public interface UserEntityRepository extends JpaRepository<UserEntity, Integer> {
+public interface UserEntityRepository extends JpaRepository<UserEntity, Long> {
 
     Optional<UserEntity> findByUserName(String userName);
+
+    // soft delete 된 유저의 이름도 user_name_uk 를 차지하므로 @Where 없이 native query 로 센다.
+    @Query(value = "SELECT COUNT(*) FROM \"user\" WHERE user_name = :userName", nativeQuery = true)
+    long countByUserNameIncludingDeleted(@Param("userName") String userName);
+
+    // user_name_uk 인덱스 순서대로 userName 만 읽는다. (keyset, soft delete 된 유저 포함)
+    @Query(value = "SELECT user_name FROM \"user\" WHERE user_name > :userName ORDER BY user_name", nativeQuery = true)
+    List<String> findUserNamesIncludingDeletedAfter(@Param("userName") String userName, Pageable pageable);
+
+    @Query("SELECT entity.followerCount FROM UserEntity entity WHERE entity.id = :userId")
+    Optional<Long> findFollowerCountById(@Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserEntity entity SET entity.followerCount = entity.followerCount + :delta WHERE entity.id = :userId")
+    int increaseFollowerCount(@Param("userId") Long userId, @Param("delta") long delta);
+
+    @Query("SELECT entity.lastReadAlarmId FROM UserEntity entity WHERE entity.id = :userId")
+    Long findLastReadAlarmIdById(@Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserEntity entity SET entity.password = :password WHERE entity.id = :userId")
+    int updatePassword(@Param("userId") Long userId, @Param("password") String password);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserEntity entity SET entity.lastReadAlarmId = :alarmId WHERE entity.id = :userId")
+    int updateLastReadAlarmId(@Param("userId") Long userId, @Param("alarmId") Long alarmId);
 }
@@ -0,0 +1,70 @@
+package come.fastcampus.sns.repository;
+
+import come.fastcampus.sns.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 사용 중인 userName 을 담은 Bloom filter.
+ * 필터에 없는 이름은 DB 를 조회하지 않고 사용 가능하다고 판단한다.
+ * 시작할 때 user_name unique 인덱스 순서대로 읽어서 채우고, 이후에는 이 인스턴스에서 가입한 이름을 더한다.
+ * 다른 인스턴스에서 방금 가입한 이름은 놓칠 수 있으므로 가입 가능 여부는 힌트이고, 최종 판단은 unique 인덱스가 한다.
+ * unique 인덱스는 컬럼 collation (*_ci) 기준으로 같은 이름을 막으므로 (대소문자, 악센트, 끝 공백 무시) 필터도 같은 기준으로 정규화한 이름을 담는다.
+ * 정규화가 collation 보다 더 많은 이름을 같게 보더라도 DB 확인이 늘어날 뿐 틀린 답은 나오지 않는다.
+ */
+@Slf4j
+@Repository
+public class UserNameFilterRepository {
+
+    private static final int LOAD_PAGE_SIZE = 10000;
+
+    private final UserEntityRepository userEntityRepository;
+    private final BloomFilter filter;
+    private volatile boolean loaded;
+
+    public UserNameFilterRepository(UserEntityRepository userEntityRepository,
+                                    @Value("${user-name.filter.expected-insertions:1000000}") long expectedInsertions,
+                                    @Value("${user-name.filter.fpp:0.01}") double fpp) {
+        this.userEntityRepository = userEntityRepository;
+        this.filter = new BloomFilter(expectedInsertions, fpp);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long count = 0;
+        String cursor = "";
+        List<String> userNames;
+        do {
+            userNames = userEntityRepository.findUserNamesIncludingDeletedAfter(cursor, PageRequest.of(0, LOAD_PAGE_SIZE));
+            userNames.forEach(this::put);
+            count += userNames.size();
+            if (!userNames.isEmpty()) {
+                cursor = userNames.get(userNames.size() - 1);
+            }
+        } while (userNames.size() == LOAD_PAGE_SIZE);
+        loaded = true;
+        log.info("Loaded {} user names into filter", count);
+    }
+
+    public void put(String userName) {
+        filter.put(normalize(userName));
+    }
+
+    // 로딩 전에는 필터를 믿을 수 없으므로 true (DB 확인 필요)
+    public boolean mightContain(String userName) {
+        return !loaded || filter.mightContain(normalize(userName));
+    }
+
+    private static String normalize(String userName) {
+        String stripped = Normalizer.normalize(userName, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.replaceAll(" +$", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,87 @@
+package come.fastcampus.sns.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * (MySQL) registered_at 기준 월 단위 RANGE 파티션을 관리한다. 기본값은 꺼져있다.
+ * - 앞으로 months-ahead 개월 치 파티션을 pmax 에서 떼어내 미리 만들어 둔다.
+ * - 보관 기간이 지난 달의 파티션은 DELETE 대신 DROP PARTITION 으로 한번에 지운다.
+ *
+ * 파티션 테이블은 모든 unique key 에 파티션 컬럼이 있어야 하고 FK 를 가질 수 없으므로, 한번은 직접 전환해야 한다.
+ *   ALTER TABLE alarm DROP FOREIGN KEY ..., DROP PRIMARY KEY, ADD PRIMARY KEY (id, registered_at);
+ *   ALTER TABLE alarm PARTITION BY RANGE COLUMNS(registered_at) (PARTITION pmax VALUES LESS THAN (MAXVALUE));
+ * 파티션 되지 않은 테이블이면 아무것도 하지 않는다.
+ */
+@Slf4j
+@Component
+public class AlarmPartitionScheduler {
+
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long retentionDays;
+    private final int monthsAhead;
+
+    public AlarmPartitionScheduler(JdbcTemplate jdbcTemplate,
+                                   @Value("${alarm.partition.enabled:false}") boolean enabled,
+                                   @Value("${alarm.retention.days:90}") long retentionDays,
+                                   @Value("${alarm.partition.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Scheduled(cron = "${alarm.partition.cron:0 0 3 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT partition_name FROM information_schema.partitions " +
+                        "WHERE table_schema = DATABASE() AND table_name = 'alarm' AND partition_name IS NOT NULL",
+                String.class);
+        if (!partitions.contains(MAX_PARTITION)) {
+            log.warn("alarm table is not partitioned by registered_at. Skip partition maintenance");
+            return;
+        }
+
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = month.format(PARTITION_NAME);
+            if (!partitions.contains(name)) {
+                jdbcTemplate.execute(String.format(
+                        "ALTER TABLE alarm REORGANIZE PARTITION %s INTO (" +
+                                "PARTITION %s VALUES LESS THAN ('%s'), PARTITION %s VALUES LESS THAN (MAXVALUE))",
+                        MAX_PARTITION, name, month.plusMonths(1).atDay(1), MAX_PARTITION));
+                log.info("Added alarm partition {}", name);
+            }
+        }
+
+        // 파티션의 마지막 날까지 보관 기간이 지난 경우에만 지운다.
+        LocalDate expiredBefore = LocalDate.now().minusDays(retentionDays);
+        for (String name : partitions) {
+            if (!name.matches("p\\d{6}")) {
+                continue;
+            }
+            YearMonth month = YearMonth.parse(name, PARTITION_NAME);
+            if (!month.plusMonths(1).atDay(1).isAfter(expiredBefore)) {
+                jdbcTemplate.execute(String.format("ALTER TABLE alarm DROP PARTITION %s", name));
+                log.info("Dropped alarm partition {}", name);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package come.fastcampus.sns.scheduler;
+
+import come.fastcampus.sns.repository.AlarmEntityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 보관 기간이 지난 알람을 hard delete 한다.
+ * 한번에 많은 row 를 잠그지 않도록 batch-size 개씩 (batch 마다 별도 트랜잭션) 지우고, batch 사이에 잠깐 쉰다.
+ */
+@Slf4j
+@Component
+public class AlarmRetentionScheduler {
+
+    private final AlarmEntityRepository alarmEntityRepository;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int batchSize;
+    private final long batchPauseMs;
+
+    public AlarmRetentionScheduler(AlarmEntityRepository alarmEntityRepository,
+                                   @Value("${alarm.retention.enabled:true}") boolean enabled,
+                                   @Value("${alarm.retention.days:90}") long retentionDays,
+                                   @Value("${alarm.retention.batch-size:1000}") int batchSize,
+                                   @Value("${alarm.retention.batch-pause-ms:100}") long batchPauseMs) {
+        this.alarmEntityRepository = alarmEntityRepository;
+        this.enabled = enabled;
+        this.retention = Duration.ofDays(retentionDays);
+        this.batchSize = batchSize;
+        this.batchPauseMs = batchPauseMs;
+    }
+
+    @Scheduled(cron = "${alarm.retention.cron:0 30 4 * * *}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+
+        Timestamp before = Timestamp.from(Instant.now().minus(retention));
+        long deleted = 0;
+        int count;
+        do {
+            count = alarmEntityRepository.deleteAllRegisteredBefore(before, batchSize);
+            deleted += count;
+        } while (count == batchSize && pause());
+        log.info("Purged {} alarms registered before {}", deleted, before);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
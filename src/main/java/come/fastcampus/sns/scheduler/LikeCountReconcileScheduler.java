@@ -0,0 +1,49 @@
+package come.fastcampus.sns.scheduler;
+
+import come.fastcampus.sns.repository.PostEntityRepository;
+import come.fastcampus.sns.service.LikeCountBuffer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * post.like_count 를 Like row 기준으로 다시 계산한다.
+ * 한번에 전체 테이블을 잠그지 않도록 포스트 BATCH_SIZE 개씩 (batch 마다 별도 트랜잭션) 실행한다.
+ * Like row 에는 LikeCountBuffer 에 아직 반영되지 않은 좋아요도 들어있으므로, 먼저 flush 하고
+ * 그 사이에 다시 증가분이 쌓인 포스트는 건너뛴다. (다음 flush 가 같은 좋아요를 한번 더 더하지 않도록)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LikeCountReconcileScheduler {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final PostEntityRepository postEntityRepository;
+    private final LikeCountBuffer likeCountBuffer;
+
+    @Scheduled(cron = "${like-count.reconcile.cron:0 0 4 * * *}")
+    public void reconcile() {
+        likeCountBuffer.flush();
+
+        long updated = 0;
+        long skipped = 0;
+        List<Long> ids = postEntityRepository.findIdsGreaterThan(0L, PageRequest.of(0, BATCH_SIZE));
+        while (!ids.isEmpty()) {
+            List<Long> settled = ids.stream()
+                    .filter(id -> likeCountBuffer.pending(id) == 0)
+                    .collect(Collectors.toList());
+            skipped += ids.size() - settled.size();
+            if (!settled.isEmpty()) {
+                updated += postEntityRepository.reconcileLikeCount(settled);
+            }
+            ids = postEntityRepository.findIdsGreaterThan(ids.get(ids.size() - 1), PageRequest.of(0, BATCH_SIZE));
+        }
+        log.info("Reconciled like_count of {} posts. {} posts with pending likes are skipped", updated, skipped);
+    }
+}
@@ -0,0 +1,82 @@
+package come.fastcampus.sns.scheduler;
+
+import come.fastcampus.sns.repository.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * soft delete 된 지 grace-days 가 지난 row 를 hard delete 해서 테이블과 인덱스가 계속 커지지 않도록 한다.
+ * FK 를 깨지 않도록 자식 테이블 (좋아요, 댓글, 알람, 타임라인) 부터 지우고 포스트는 마지막에 지운다.
+ * AlarmRetentionScheduler 와 같이 batch-size 개씩 (batch 마다 별도 트랜잭션) 지우고, batch 사이에 잠깐 쉰다.
+ */
+@Slf4j
+@Component
+public class SoftDeletePurgeScheduler {
+
+    private final Map<String, ToIntBiFunction<Timestamp, Integer>> purgers = new LinkedHashMap<>();
+    private final boolean enabled;
+    private final Duration grace;
+    private final int batchSize;
+    private final long batchPauseMs;
+
+    public SoftDeletePurgeScheduler(LikeEntityRepository likeEntityRepository,
+                                    CommentEntityRepository commentEntityRepository,
+                                    AlarmEntityRepository alarmEntityRepository,
+                                    TimelineEntityRepository timelineEntityRepository,
+                                    PostEntityRepository postEntityRepository,
+                                    @Value("${soft-delete.purge.enabled:true}") boolean enabled,
+                                    @Value("${soft-delete.purge.grace-days:7}") long graceDays,
+                                    @Value("${soft-delete.purge.batch-size:1000}") int batchSize,
+                                    @Value("${soft-delete.purge.batch-pause-ms:100}") long batchPauseMs) {
+        purgers.put("like", likeEntityRepository::purgeDeletedBefore);
+        purgers.put("comment", commentEntityRepository::purgeDeletedBefore);
+        purgers.put("alarm", alarmEntityRepository::purgeDeletedBefore);
+        purgers.put("timeline", timelineEntityRepository::purgeDeletedPostsBefore);
+        purgers.put("post", postEntityRepository::purgeDeletedBefore);
+        this.enabled = enabled;
+        this.grace = Duration.ofDays(graceDays);
+        this.batchSize = batchSize;
+        this.batchPauseMs = batchPauseMs;
+    }
+
+    @Scheduled(cron = "${soft-delete.purge.cron:0 0 5 * * *}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+
+        Timestamp before = Timestamp.from(Instant.now().minus(grace));
+        for (Map.Entry<String, ToIntBiFunction<Timestamp, Integer>> purger : purgers.entrySet()) {
+            long deleted = 0;
+            int count;
+            do {
+                count = purger.getValue().applyAsInt(before, batchSize);
+                deleted += count;
+            } while (count == batchSize && pause());
+            log.info("Purged {} {} rows soft deleted before {}", deleted, purger.getKey(), before);
+
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
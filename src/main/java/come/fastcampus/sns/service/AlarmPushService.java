@@ -0,0 +1,68 @@
+package come.fastcampus.sns.service;
+
+import come.fastcampus.sns.exception.ErrorCode;
+import come.fastcampus.sns.exception.SnsApplicationException;
+import come.fastcampus.sns.repository.EmitterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * 알람을 polling 하지 않도록 SSE 로 연결된 클라이언트에 새 알람을 push 한다.
+ * 클라이언트는 "alarm" 이벤트를 받으면 알람 목록을 다시 조회한다.
+ */
+@Slf4j
+@Service
+public class AlarmPushService {
+
+    private static final String ALARM_NAME = "alarm";
+
+    private final EmitterRepository emitterRepository;
+    private final long timeoutMs;
+
+    public AlarmPushService(EmitterRepository emitterRepository,
+                            @Value("${alarm.sse.timeout-ms:1800000}") long timeoutMs) {
+        this.emitterRepository = emitterRepository;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public SseEmitter connect(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        if (!emitterRepository.save(userId, emitter)) {
+            throw new SnsApplicationException(ErrorCode.TOO_MANY_CONNECTIONS, String.format("%s connections", emitterRepository.size()));
+        }
+
+        emitter.onCompletion(() -> emitterRepository.delete(userId, emitter));
+        emitter.onTimeout(() -> emitterRepository.delete(userId, emitter));
+        emitter.onError(e -> emitterRepository.delete(userId, emitter));
+
+        // 연결 직후 아무 데이터도 보내지 않으면 타임아웃까지 응답이 시작되지 않으므로 연결 이벤트를 보낸다.
+        send(userId, emitter, SseEmitter.event().name(ALARM_NAME).data("connect completed"));
+        return emitter;
+    }
+
+    public void send(Long userId, Long alarmId) {
+        emitterRepository.get(userId).forEach(emitter ->
+                send(userId, emitter, SseEmitter.event().id(alarmId.toString()).name(ALARM_NAME).data("new alarm")));
+    }
+
+    // 프록시 / 로드밸런서의 idle timeout 으로 연결이 끊기지 않도록 주기적으로 comment 를 보낸다.
+    @Scheduled(fixedDelayString = "${alarm.sse.heartbeat-ms:30000}")
+    public void heartbeat() {
+        emitterRepository.forEach((userId, emitter) -> send(userId, emitter, SseEmitter.event().comment("heartbeat")));
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // 끊긴 연결
+            emitterRepository.delete(userId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+}
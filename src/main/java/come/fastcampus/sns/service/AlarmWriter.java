@@ -0,0 +1,222 @@
+package come.fastcampus.sns.service;
+
+import come.fastcampus.sns.model.AlarmEvent;
+import come.fastcampus.sns.model.entity.AlarmEntity;
+import come.fastcampus.sns.repository.AlarmEntityRepository;
+import come.fastcampus.sns.repository.UserEntityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 좋아요 / 댓글 트랜잭션에서 알람 insert 를 분리한다.
+ * - AlarmEvent 는 원래 트랜잭션이 커밋된 이후에만 큐에 들어간다. (롤백된 액션에 대한 알람은 만들지 않는다)
+ * - 전용 스레드가 큐에서 batch-size 만큼 꺼내서 한 트랜잭션으로 저장한다.
+ * - 같은 (receiver, alarmType, targetId) 알람은 alarm.coalesce.window-ms 안에서 하나의 row 로 뭉친다. ("OO외 N명이...")
+ *   writer 스레드와 호출 스레드가 같은 row 를 동시에 뭉치면 @Version 충돌이 나고, 다시 읽어서 뭉친다.
+ * - 큐가 가득 차면 offer-timeout-ms 만큼 기다리고, 그래도 가득 차 있으면 호출한 스레드에서 직접 저장한다. (backpressure, 유실 방지)
+ * - 저장된 알람은 SSE 로 연결된 수신자에게 push 한다. (AlarmPushService)
+ * - 종료시 큐에 남은 알람을 모두 저장한 뒤 멈춘다.
+ * 프로세스가 비정상 종료되면 큐에 있던 알람은 유실될 수 있다.
+ */
+@Slf4j
+@Component
+public class AlarmWriter {
+
+    private static final long POLL_TIMEOUT_MS = 500;
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final AlarmEntityRepository alarmEntityRepository;
+    private final UserEntityRepository userEntityRepository;
+    private final AlarmPushService alarmPushService;
+    private final UnreadAlarmCounter unreadAlarmCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<AlarmEvent> queue;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final long coalesceWindowMs;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("alarm-writer-"));
+
+    private volatile boolean running = true;
+
+    public AlarmWriter(AlarmEntityRepository alarmEntityRepository,
+                       UserEntityRepository userEntityRepository,
+                       AlarmPushService alarmPushService,
+                       UnreadAlarmCounter unreadAlarmCounter,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${alarm.writer.queue-capacity:10000}") int queueCapacity,
+                       @Value("${alarm.writer.batch-size:100}") int batchSize,
+                       @Value("${alarm.writer.offer-timeout-ms:50}") long offerTimeoutMs,
+                       @Value("${alarm.coalesce.window-ms:3600000}") long coalesceWindowMs) {
+        this.alarmEntityRepository = alarmEntityRepository;
+        this.userEntityRepository = userEntityRepository;
+        this.alarmPushService = alarmPushService;
+        this.unreadAlarmCounter = unreadAlarmCounter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // afterCommit 에서 직접 저장하는 경우에도 원래 트랜잭션에 참여하지 않도록 항상 새 트랜잭션
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.coalesceWindowMs = coalesceWindowMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        executor.execute(this::run);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void enqueue(AlarmEvent event) {
+        try {
+            if (queue.offer(event, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        log.warn("Alarm queue is full. write alarm on caller thread. receiver={}", event.getReceiverUserId());
+        writeWithRetry(List.of(event));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.error("Alarm writer is not terminated. {} alarms are dropped", queue.size());
+        }
+    }
+
+    private void run() {
+        List<AlarmEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AlarmEvent first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                // 종료 중이면 남은 알람을 마저 저장한다.
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<AlarmEvent> batch) {
+        try {
+            writeWithRetry(batch);
+        } catch (RuntimeException e) {
+            // 한 건 때문에 batch 전체가 유실되지 않도록 하나씩 다시 저장한다.
+            log.error("Error occurs while writing alarms. retry one by one. {}", e.toString());
+            for (AlarmEvent event : batch) {
+                try {
+                    writeWithRetry(List.of(event));
+                } catch (RuntimeException ex) {
+                    log.error("Error occurs while writing alarm. receiver={} {}", event.getReceiverUserId(), ex.toString());
+                }
+            }
+        }
+    }
+
+    private void writeWithRetry(List<AlarmEvent> events) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write(events);
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Alarm was coalesced concurrently. retry {}/{}", attempt, MAX_WRITE_ATTEMPTS);
+            }
+        }
+    }
+
+    private void write(List<AlarmEvent> events) {
+        List<Long> newAlarmReceivers = new ArrayList<>();
+        List<AlarmEntity> saved = transactionTemplate.execute(status -> {
+            // 같은 (receiver, alarmType, targetId) 이벤트끼리 먼저 묶고, 묶음마다 window 안의 기존 알람에 합친다.
+            Map<List<Object>, List<AlarmEvent>> groups = events.stream().collect(Collectors.groupingBy(
+                    event -> List.<Object>of(event.getReceiverUserId(), event.getAlarmType(), event.getArgs().getTargetId()),
+                    LinkedHashMap::new,
+                    Collectors.toList()));
+
+            List<AlarmEntity> entities = new ArrayList<>();
+            for (List<AlarmEvent> group : groups.values()) {
+                AlarmEntity entity = coalesce(group);
+                if (entity.getId() == null) {
+                    newAlarmReceivers.add(entity.getUser().getId());
+                }
+                entities.add(entity);
+            }
+            return alarmEntityRepository.saveAll(entities);
+        });
+
+        // 커밋된 알람만 안 읽은 알람 수에 반영하고, 연결된 클라이언트에 push 한다.
+        newAlarmReceivers.forEach(unreadAlarmCounter::increase);
+        if (saved != null) {
+            saved.forEach(this::push);
+        }
+    }
+
+    // 이미 읽은 알람에 뭉치면 안 읽은 알람으로 보이지 않으므로, 마지막으로 읽은 알람 이후의 알람에만 뭉친다.
+    private Long lastReadAlarmId(Long userId) {
+        Long lastReadAlarmId = userEntityRepository.findLastReadAlarmIdById(userId);
+        return lastReadAlarmId == null ? 0 : lastReadAlarmId;
+    }
+
+    private void push(AlarmEntity entity) {
+        try {
+            alarmPushService.send(entity.getUser().getId(), entity.getId());
+        } catch (RuntimeException e) {
+            // push 실패는 알람 저장 실패가 아니다. (클라이언트는 다음 조회에서 받는다)
+            log.error("Error occurs while pushing alarm. {}", e.toString());
+        }
+    }
+
+    private AlarmEntity coalesce(List<AlarmEvent> group) {
+        AlarmEvent first = group.get(0);
+        Optional<AlarmEntity> existing = coalesceWindowMs > 0
+                ? alarmEntityRepository.findFirstByUserIdAndAlarmTypeAndTargetIdAndRegisteredAtAfterAndIdGreaterThanOrderByIdDesc(
+                        first.getReceiverUserId(), first.getAlarmType(), first.getArgs().getTargetId(),
+                        new Timestamp(System.currentTimeMillis() - coalesceWindowMs),
+                        lastReadAlarmId(first.getReceiverUserId()))
+                : Optional.empty();
+
+        AlarmEntity entity = existing.orElseGet(() -> AlarmEntity.of(
+                userEntityRepository.getReferenceById(first.getReceiverUserId()), first.getAlarmType(), first.getArgs()));
+        group.stream()
+                .skip(existing.isPresent() ? 0 : 1)
+                .forEach(event -> entity.coalesce(event.getArgs()));
+        return entity;
+    }
+}
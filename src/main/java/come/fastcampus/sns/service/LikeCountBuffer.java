@@ -0,0 +1,131 @@
+package come.fastcampus.sns.service;
+
+import come.fastcampus.sns.repository.PostEntityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * post.like_count 증가분을 모아서 반영한다.
+ * - enabled=false : 좋아요 트랜잭션 안에서 바로 UPDATE (기본값)
+ * - enabled=true  : 커밋 이후 post id 별 LongAdder 에 누적하고, flush 주기마다 묶어서 UPDATE 한다.
+ *                   인기 포스트에 좋아요가 몰려도 같은 post row 에 대한 lock 경합이 좋아요 요청 경로에서 사라진다.
+ * 아직 반영되지 않은 증가분은 pending(postId) 로 조회시 더해준다.
+ * flush 한 증가분은 UPDATE 가 커밋된 이후에 pending 에서 뺀다. (flush 중에도 조회되는 좋아요 수가 줄어들지 않는다)
+ * adder 추가 / 제거는 map 의 compute 안에서만 해서, 제거되는 adder 에 증가분이 더해져 유실되지 않도록 한다.
+ */
+@Slf4j
+@Component
+public class LikeCountBuffer {
+
+    private static final int FLUSH_BATCH_SIZE = 100;
+
+    private final PostEntityRepository postEntityRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    // 직전 flush 에서 증가분이 없었던 post id (한 주기 더 비어있으면 map 에서 제거)
+    private final Set<Long> idle = ConcurrentHashMap.newKeySet();
+
+    public LikeCountBuffer(PostEntityRepository postEntityRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${like-count.write-behind.enabled:false}") boolean enabled) {
+        this.postEntityRepository = postEntityRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    public void increase(Long postId) {
+        if (!enabled) {
+            postEntityRepository.increaseLikeCount(postId, 1);
+            return;
+        }
+
+        // 좋아요 트랜잭션이 롤백되면 카운트하지 않는다.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(postId, 1);
+                }
+            });
+        } else {
+            add(postId, 1);
+        }
+    }
+
+    public long pending(Long postId) {
+        LongAdder adder = pending.get(postId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${like-count.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+
+        List<Map.Entry<Long, Long>> deltas = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            // 여기서는 읽기만 하고, 커밋된 이후에 뺀다.
+            long delta = entry.getValue().sum();
+            if (delta != 0) {
+                idle.remove(entry.getKey());
+                deltas.add(Map.entry(entry.getKey(), delta));
+            } else if (idle.remove(entry.getKey())) {
+                evict(entry.getKey());
+            } else {
+                idle.add(entry.getKey());
+            }
+        }
+
+        for (int from = 0; from < deltas.size(); from += FLUSH_BATCH_SIZE) {
+            flushBatch(deltas.subList(from, Math.min(from + FLUSH_BATCH_SIZE, deltas.size())));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flush pending like counts before shutdown. posts={}", pending.size());
+        flush();
+    }
+
+    private void flushBatch(List<Map.Entry<Long, Long>> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    batch.forEach(it -> postEntityRepository.increaseLikeCount(it.getKey(), it.getValue())));
+        } catch (RuntimeException e) {
+            // 반영에 실패한 증가분은 pending 에 그대로 남아있고, 다음 flush 에서 다시 시도한다.
+            log.error("Error occurs while flushing like counts. {}", e.toString());
+            return;
+        }
+        batch.forEach(it -> add(it.getKey(), -it.getValue()));
+    }
+
+    private void add(Long postId, long delta) {
+        pending.compute(postId, (key, adder) -> {
+            LongAdder result = adder == null ? new LongAdder() : adder;
+            result.add(delta);
+            return result;
+        });
+    }
+
+    // 두 주기 연속 증가분이 없던 post 만 제거한다. 같은 compute 안에서 0 인지 다시 확인하므로 add 와 겹쳐도 유실되지 않는다.
+    private void evict(Long postId) {
+        pending.computeIfPresent(postId, (key, adder) -> adder.sum() == 0 ? null : adder);
+    }
+}
@@ -0,0 +1,89 @@
+package come.fastcampus.sns.service;
+
+import come.fastcampus.sns.exception.ErrorCode;
+import come.fastcampus.sns.exception.SnsApplicationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * BCrypt 해싱 / 비교를 요청 스레드 대신 코어 수만큼의 전용 스레드에서 실행한다.
+ * 큐가 가득 차거나 timeout 안에 끝나지 않으면 기다리지 않고 PASSWORD_HASHER_BUSY (503) 를 던진다.
+ * 로그인이 몰려도 CPU 를 쓰는 해싱은 코어 수만큼만 동시에 돌고, 나머지 API 는 Tomcat 스레드를 계속 쓸 수 있다.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private final BCryptPasswordEncoder encoder;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHasher(BCryptPasswordEncoder encoder,
+                          @Value("${password.hash.threads:0}") int threads,
+                          @Value("${password.hash.queue-capacity:100}") int queueCapacity,
+                          @Value("${password.hash.timeout-ms:3000}") long timeoutMs) {
+        this.encoder = encoder;
+        this.timeoutMs = timeoutMs;
+        // 0 이하면 코어 수
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(String rawPassword) {
+        return execute(() -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return execute(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    // 저장된 해시의 cost 가 설정된 strength 보다 낮으면 true (해싱 없이 prefix 만 본다)
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new SnsApplicationException(ErrorCode.PASSWORD_HASHER_BUSY, String.format("%s tasks queued", executor.getQueue().size()));
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new SnsApplicationException(ErrorCode.PASSWORD_HASHER_BUSY, String.format("timeout %s ms", timeoutMs));
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SnsApplicationException(ErrorCode.PASSWORD_HASHER_BUSY, "interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new SnsApplicationException(ErrorCode.INTERNAL_SERVER_ERROR, e.getCause().toString());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package come.fastcampus.sns.service;
+
+import come.fastcampus.sns.model.AlarmType;
+import come.fastcampus.sns.model.entity.PostEntity;
+import come.fastcampus.sns.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 포스트와 딸린 row (좋아요, 댓글, 포스트에 대한 알람) 를 한 트랜잭션에서 soft delete 한다.
+ * 딸린 row 수와 상관없이 테이블마다 UPDATE 한번, 총 4개의 문장만 실행한다.
+ * 타임라인 row 는 그대로 두고 (조회시 삭제된 포스트는 빠진다) SoftDeletePurgeScheduler 가 나중에 정리한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostCascadeDeleteService {
+
+    private static final Set<AlarmType> POST_ALARM_TYPES = EnumSet.of(AlarmType.NEW_COMMENT_ON_POST, AlarmType.NEW_LIKE_ON_POST);
+
+    private final PostEntityRepository postEntityRepository;
+    private final LikeEntityRepository likeEntityRepository;
+    private final CommentEntityRepository commentEntityRepository;
+    private final AlarmEntityRepository alarmEntityRepository;
+    private final PostCacheRepository postCacheRepository;
+    private final TimelineCacheRepository timelineCacheRepository;
+
+    @Transactional
+    public void delete(PostEntity postEntity) {
+        Long postId = postEntity.getId();
+
+        int likes = likeEntityRepository.softDeleteAllByPostId(postId);
+        int comments = commentEntityRepository.softDeleteAllByPostId(postId);
+        int alarms = alarmEntityRepository.softDeleteAllByTargetId(postId, POST_ALARM_TYPES);
+        postEntityRepository.delete(postEntity);
+        log.debug("Soft deleted post {} with {} likes, {} comments, {} alarms", postId, likes, comments, alarms);
+
+        postCacheRepository.evict(postId);
+        timelineCacheRepository.evictAuthorPostIds(postEntity.getUser().getId());
+    }
+}
@@ -1,132 +1,226 @@
 package come.fastcampus.sns.service;
 
+import come.fastcampus.sns.controller.request.PostCreateRequest;
 import come.fastcampus.sns.exception.ErrorCode;
 import come.fastcampus.sns.exception.SnsApplicationException;
 import come.fastcampus.sns.model.AlarmArgs;
+import come.fastcampus.sns.model.AlarmEvent;
 import come.fastcampus.sns.model.AlarmType;
 import come.fastcampus.sns.model.Comment;
 import come.fastcampus.sns.model.Post;
+import come.fastcampus.sns.model.PostCreatedEvent;
 import come.fastcampus.sns.model.entity.*;
 import come.fastcampus.sns.repository.*;
+import come.fastcampus.sns.util.ConstraintViolationUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class PostService {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final int MAX_BULK_SIZE = 1000;
+
     private final PostEntityRepository postEntityRepository;
     private final UserEntityRepository userEntityRepository;
     private final LikeEntityRepository likeEntityRepository;
-    private final AlarmEntityRepository alarmEntityRepository;
     private final CommentEntityRepository commentEntityRepository;
+    private final LikeCountBuffer likeCountBuffer;
+    private final TimelineService timelineService;
+    private final PostCacheRepository postCacheRepository;
+    private final PostBulkRepository postBulkRepository;
+    private final PostCascadeDeleteService postCascadeDeleteService;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Transactional
-    public void create(String title, String body, String userName) {
-        UserEntity userEntity = getUserEntityOrException(userName);
+    public void create(String title, String body, Long userId) {
+        // post save (user 는 조회하지 않고 id 로 참조만 한다.)
+        PostEntity postEntity = postEntityRepository.save(PostEntity.of(title, body, userEntityRepository.getReferenceById(userId)));
 
-        // post save
-        postEntityRepository.save(PostEntity.of(title, body, userEntity));
+        // 팔로워 타임라인에는 커밋 이후 TimelineService 가 비동기로 넣는다.
+        applicationEventPublisher.publishEvent(new PostCreatedEvent(postEntity.getId(), userId));
+    }
+
+    // 여러 포스트를 한 트랜잭션에서 JDBC batch 로 만든다.
+    @Transactional
+    public List<Long> createAll(List<PostCreateRequest> requests, Long userId) {
+        if (requests == null || requests.isEmpty() || requests.size() > MAX_BULK_SIZE) {
+            throw new SnsApplicationException(ErrorCode.INVALID_REQUEST, String.format("bulk size must be between 1 and %d", MAX_BULK_SIZE));
+        }
+        UserEntity userEntity = userEntityRepository.getReferenceById(userId);
+
+        List<PostEntity> postEntities = postBulkRepository.saveAll(requests.stream()
+                .map(request -> PostEntity.of(request.getTitle(), request.getBody(), userEntity))
+                .collect(Collectors.toList()));
+
+        postEntities.forEach(postEntity -> applicationEventPublisher.publishEvent(new PostCreatedEvent(postEntity.getId(), userId)));
+        return postEntities.stream().map(PostEntity::getId).collect(Collectors.toList());
     }
 
     // 변경된 Post로 반환하는 게 좋다.
     @Transactional
-    public Post modify(String title, String body, String userName, Integer postId) {
-        UserEntity userEntity = getUserEntityOrException(userName);
+    public Post modify(String title, String body, Long userId, Long postId) {
         PostEntity postEntity = getPostEntityOrException(postId);
 
-        // post permission (userId로 비교 하지 않고 user객체로 비교 한다.)
-        if (postEntity.getUser() != userEntity) {
-            throw new SnsApplicationException(ErrorCode.INVALID_PERMISSION, String.format("%s has no permission with %s", userEntity, postId));
-        }
+        // post permission (작성자 id 로 비교한다.)
+        checkPermission(postEntity, userId);
 
         postEntity.setTitle(title);
         postEntity.setBody(body);
         postEntityRepository.save(postEntity);
+        postCacheRepository.evict(postId);
 
         return Post.fromEntity(postEntityRepository.saveAndFlush(postEntity));
     }
 
     @Transactional
-    public void delete(String userName, Integer postId) {
-        UserEntity userEntity = getUserEntityOrException(userName);
+    public void delete(Long userId, Long postId) {
         PostEntity postEntity = getPostEntityOrException(postId);
 
         // post permission
-        if (postEntity.getUser() != userEntity) {
-            throw new SnsApplicationException(ErrorCode.INVALID_PERMISSION, String.format("%s has no permission with %s", userEntity, postId));
-        }
+        checkPermission(postEntity, userId);
 
-        likeEntityRepository.deleteAllByPost(postEntity);
-        commentEntityRepository.deleteAllByPost(postEntity);
-        postEntityRepository.delete(postEntity);
+        postCascadeDeleteService.delete(postEntity);
     }
 
+    // 첫 페이지는 짧은 TTL 로 캐싱한다.
     public Page<Post> list(Pageable pageable) {
-        return postEntityRepository.findAll(pageable).map(Post::fromEntity);
+        if (pageable.getPageNumber() == 0) {
+            return postCacheRepository.getFirstPage(pageable, () -> postEntityRepository.findAllWithUser(pageable).map(Post::fromEntity));
+        }
+        return postEntityRepository.findAllWithUser(pageable).map(Post::fromEntity);
+    }
+
+    public Post get(Long postId) {
+        Post post = postCacheRepository.get(postId, key -> postEntityRepository.findById(key).map(Post::fromEntity).orElse(null));
+        if (post == null) {
+            throw new SnsApplicationException(ErrorCode.POST_NOT_FOUND, String.format("%s not founded", postId));
+        }
+        return post;
     }
 
-    public Page<Post> my(String userName, Pageable pageable) {
-        UserEntity userEntity = getUserEntityOrException(userName);
+    public Page<Post> my(Long userId, Pageable pageable) {
+        return postEntityRepository.findAllWithUserByUser(userEntityRepository.getReferenceById(userId), pageable).map(Post::fromEntity);
+    }
 
-        return postEntityRepository.findAllByUser(userEntity, pageable).map(Post::fromEntity);
+    // cursor 가 없으면 첫 페이지, 있으면 cursor(포스트 id) 보다 오래된 포스트를 조회한다.
+    public Slice<Post> scroll(Long cursor, int size) {
+        return postEntityRepository.findAllWithUserByIdLessThan(cursorOrFirst(cursor), scrollPageable(size)).map(Post::fromEntity);
     }
 
-    @Transactional
-    public void like(Integer postId, String userName) {
-        PostEntity postEntity = getPostEntityOrException(postId);
-        // user find
-        UserEntity userEntity = getUserEntityOrException(userName);
+    public Slice<Post> myScroll(Long userId, Long cursor, int size) {
+        return postEntityRepository.findAllByUser(userEntityRepository.getReferenceById(userId), cursorOrFirst(cursor), scrollPageable(size)).map(Post::fromEntity);
+    }
 
-        // check likes -> throw
-        likeEntityRepository.findByUserAndPost(userEntity, postEntity).ifPresent(it -> {
-            throw new SnsApplicationException(ErrorCode.ALREADY_LIKED, String.format("userName %s already like post %s", userName, postId));
-        });
+    // 홈 타임라인 : 팔로우한 유저 + 내 포스트를 최신순으로 조회한다. 포스트 id 는 메모리 타임라인에서 읽고, 포스트는 PK 로 가져온다.
+    public Slice<Post> timeline(Long userId, Long cursor, int size) {
+        Pageable pageable = scrollPageable(size);
 
-        // like save
-        likeEntityRepository.save(LikeEntity.of(userEntity, postEntity));
-        alarmEntityRepository.save(AlarmEntity.of(postEntity.getUser(), AlarmType.NEW_LIKE_ON_POST, new AlarmArgs(userEntity.getId(), postEntity.getId())));
+        List<Long> postIds = timelineService.postIds(userId, cursorOrFirst(cursor), pageable.getPageSize() + 1);
+        boolean hasNext = postIds.size() > pageable.getPageSize();
+        if (hasNext) {
+            postIds = postIds.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(findPostsInOrder(postIds), pageable, hasNext);
     }
 
-    public long likeCount(Integer postId) {
+    @Transactional
+    public void like(Long postId, Long userId) {
         PostEntity postEntity = getPostEntityOrException(postId);
 
-        // count like
-//        List<LikeEntity> likeEntities = likeEntityRepository.findAllByPost(postEntity);
-//        return likeEntities.size();
-        return likeEntityRepository.countByPost(postEntity);
+        // like save (이미 좋아요 한 경우 (user_id, post_id) unique index 에 걸린다 -> throw)
+        try {
+            likeEntityRepository.saveAndFlush(LikeEntity.of(userEntityRepository.getReferenceById(userId), postEntity));
+        } catch (DataIntegrityViolationException e) {
+            // 삭제된 유저의 FK 위반 등 다른 제약조건 위반은 그대로 던진다.
+            if (!ConstraintViolationUtils.isViolated(e, LikeEntity.USER_ID_POST_ID_UK)) {
+                throw e;
+            }
+            throw new SnsApplicationException(ErrorCode.ALREADY_LIKED, String.format("user %s already like post %s", userId, postId));
+        }
+        likeCountBuffer.increase(postEntity.getId());
+        // 알람은 커밋 이후 AlarmWriter 가 비동기로 저장한다.
+        applicationEventPublisher.publishEvent(new AlarmEvent(postEntity.getUser().getId(), AlarmType.NEW_LIKE_ON_POST, new AlarmArgs(userId, postEntity.getId())));
+    }
+
+    public long likeCount(Long postId) {
+        // count like (post.like_count 를 PK 로 조회 + 아직 flush 되지 않은 증가분)
+        long likeCount = postEntityRepository.findLikeCountById(postId).orElseThrow(() ->
+                new SnsApplicationException(ErrorCode.POST_NOT_FOUND, String.format("%s not founded", postId)));
+        return likeCount + likeCountBuffer.pending(postId);
     }
 
     @Transactional
-    public void comment(Integer postId, String userName, String comment) {
+    public void comment(Long postId, Long userId, String comment) {
         PostEntity postEntity = getPostEntityOrException(postId);
-        UserEntity userEntity = getUserEntityOrException(userName);
 
         // comment save
-        commentEntityRepository.save(CommentEntity.of(userEntity, postEntity, comment));
+        commentEntityRepository.save(CommentEntity.of(userEntityRepository.getReferenceById(userId), postEntity, comment));
 
         // 포스트 작성한사람(알람전송), 새로운 포스트, (로그인 유저, 포스트 아이디)
-        alarmEntityRepository.save(AlarmEntity.of(postEntity.getUser(), AlarmType.NEW_COMMENT_ON_POST, new AlarmArgs(userEntity.getId(), postEntity.getId())));
+        applicationEventPublisher.publishEvent(new AlarmEvent(postEntity.getUser().getId(), AlarmType.NEW_COMMENT_ON_POST, new AlarmArgs(userId, postEntity.getId())));
     }
 
-    public Page<Comment> getComments(Integer postId, Pageable pageable) {
+    public Page<Comment> getComments(Long postId, Pageable pageable) {
         PostEntity postEntity = getPostEntityOrException(postId);
         return commentEntityRepository.findAllByPost(postEntity, pageable).map(Comment::fromEntity);
     }
 
+    public Slice<Comment> scrollComments(Long postId, Long cursor, int size) {
+        // 포스트 존재 여부는 첫 페이지에서만 확인한다. (이후 페이지는 comment 인덱스 range scan 한번)
+        if (cursor == null && !postEntityRepository.existsById(postId)) {
+            throw new SnsApplicationException(ErrorCode.POST_NOT_FOUND, String.format("%s not founded", postId));
+        }
+        return commentEntityRepository.findAllByPostId(postId, cursorOrFirst(cursor), scrollPageable(size));
+    }
+
+    // 캐시에 없는 포스트만 한번에 조회한다. 삭제된 포스트는 빠진다.
+    private List<Post> findPostsInOrder(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Post> posts = postCacheRepository.getAll(postIds, missing ->
+                postEntityRepository.findAllWithUserByIdIn(missing).stream()
+                        .collect(Collectors.toMap(PostEntity::getId, Post::fromEntity)));
+        return postIds.stream()
+                .map(posts::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private Long cursorOrFirst(Long cursor) {
+        return cursor == null ? Long.MAX_VALUE : cursor;
+    }
+
+    private Pageable scrollPageable(int size) {
+        return PageRequest.of(0, Math.max(1, Math.min(size, MAX_SCROLL_SIZE)));
+    }
+
     // post exist
-    private PostEntity getPostEntityOrException(Integer postId) {
+    private PostEntity getPostEntityOrException(Long postId) {
         return postEntityRepository.findById(postId).orElseThrow(() ->
                     new SnsApplicationException(ErrorCode.POST_NOT_FOUND, String.format("%s not founded", postId)));
     }
-    // user exist
 
-    private UserEntity getUserEntityOrException(String userName) {
-        return userEntityRepository.findByUserName(userName).orElseThrow(
-                () -> new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not found", userName)));
+    // 작성자의 user 는 프록시일 수 있으므로 entity 가 아닌 id 로 비교한다. (프록시의 getId 는 조회하지 않는다)
+    private void checkPermission(PostEntity postEntity, Long userId) {
+        if (!postEntity.getUser().getId().equals(userId)) {
+            throw new SnsApplicationException(ErrorCode.INVALID_PERMISSION, String.format("user %s has no permission with %s", userId, postEntity.getId()));
+        }
     }
 }
@@ -0,0 +1,246 @@
+package come.fastcampus.sns.service;
+
+import come.fastcampus.sns.model.PostCreatedEvent;
+import come.fastcampus.sns.repository.FollowEntityRepository;
+import come.fastcampus.sns.repository.PostEntityRepository;
+import come.fastcampus.sns.repository.TimelineCacheRepository;
+import come.fastcampus.sns.repository.TimelineEntityRepository;
+import come.fastcampus.sns.repository.UserEntityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 홈 타임라인 (hybrid fan-out)
+ * - 포스트 작성이 커밋되면 전용 스레드가 작성자 + 팔로워의 timeline 테이블에 batch insert 하고,
+ *   메모리에 타임라인이 올라와 있는 (active) 유저의 ring buffer 에도 넣는다. (push)
+ * - 팔로워가 timeline.hybrid.follower-threshold 명 이상인 작성자는 팔로워에게 fan-out 하지 않고,
+ *   조회시 그 작성자의 최근 포스트를 가져와서 push 된 타임라인과 post id 역순으로 k-way merge 한다. (pull)
+ * - 조회는 ring buffer 에서 한 페이지만큼 읽는다. buffer 보다 오래된 페이지만 timeline 테이블을 range scan 한다.
+ * - 큐가 가득 차면 호출한 스레드에서 직접 fan-out 한다. (backpressure, 유실 방지)
+ * 작성자가 threshold 아래로 내려가면 그 전에 pull 로만 보이던 포스트는 팔로워 타임라인에 남지 않는다.
+ */
+@Slf4j
+@Service
+public class TimelineService {
+
+    private static final String INSERT_SQL = "INSERT INTO \"timeline\" (user_id, post_id, author_id, registered_at) VALUES (?, ?, ?, ?)";
+
+    private final FollowEntityRepository followEntityRepository;
+    private final TimelineEntityRepository timelineEntityRepository;
+    private final PostEntityRepository postEntityRepository;
+    private final UserEntityRepository userEntityRepository;
+    private final TimelineCacheRepository timelineCacheRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final int backfillSize;
+    private final long followerThreshold;
+    private final int pullRecentSize;
+    private final ThreadPoolExecutor executor;
+
+    public TimelineService(FollowEntityRepository followEntityRepository,
+                           TimelineEntityRepository timelineEntityRepository,
+                           PostEntityRepository postEntityRepository,
+                           UserEntityRepository userEntityRepository,
+                           TimelineCacheRepository timelineCacheRepository,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${timeline.fanout.threads:2}") int threads,
+                           @Value("${timeline.fanout.queue-capacity:10000}") int queueCapacity,
+                           @Value("${timeline.fanout.batch-size:1000}") int batchSize,
+                           @Value("${timeline.backfill-size:20}") int backfillSize,
+                           @Value("${timeline.hybrid.follower-threshold:10000}") long followerThreshold,
+                           @Value("${timeline.hybrid.pull-recent-size:100}") int pullRecentSize) {
+        this.followEntityRepository = followEntityRepository;
+        this.timelineEntityRepository = timelineEntityRepository;
+        this.postEntityRepository = postEntityRepository;
+        this.userEntityRepository = userEntityRepository;
+        this.timelineCacheRepository = timelineCacheRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.backfillSize = backfillSize;
+        // 0 이하면 모두 fan-out (push only)
+        this.followerThreshold = followerThreshold > 0 ? followerThreshold : Long.MAX_VALUE;
+        this.pullRecentSize = pullRecentSize;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("timeline-fanout-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        executor.execute(() -> {
+            try {
+                fanout(event);
+            } catch (RuntimeException e) {
+                log.error("Error occurs while fan-out post {}. {}", event.getPostId(), e.toString());
+            }
+        });
+    }
+
+    // cursor 보다 오래된 타임라인 포스트 id 를 최신순으로 limit 개 조회한다. (push 된 타임라인 + pull 하는 작성자의 포스트)
+    public List<Long> postIds(Long userId, Long cursor, int limit) {
+        List<Long> pullAuthorIds = timelineCacheRepository.getPullAuthorIds(userId,
+                key -> followEntityRepository.findFollowingIdsByFollowerCountAtLeast(key, followerThreshold));
+        if (pullAuthorIds.isEmpty()) {
+            return pushedPostIds(userId, cursor, limit);
+        }
+
+        List<List<Long>> sources = new ArrayList<>(pullAuthorIds.size() + 1);
+        sources.add(pushedPostIds(userId, cursor, limit));
+        pullAuthorIds.forEach(authorId -> sources.add(authorPostIds(authorId, cursor, limit)));
+        return merge(sources, limit);
+    }
+
+    private List<Long> pushedPostIds(Long userId, Long cursor, int limit) {
+        Optional<List<Long>> cached = timelineCacheRepository.page(userId, cursor, limit);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        if (!timelineCacheRepository.contains(userId)) {
+            timelineCacheRepository.load(userId, size -> timelineEntityRepository.findPostIdsByUserId(userId, Long.MAX_VALUE, PageRequest.of(0, size)));
+            cached = timelineCacheRepository.page(userId, cursor, limit);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+        return timelineEntityRepository.findPostIdsByUserId(userId, cursor, PageRequest.of(0, limit));
+    }
+
+    // 팔로우한 유저의 최근 포스트를 타임라인에 채운다. pull 하는 작성자면 조회시 가져오므로 채우지 않는다. (팔로우 트랜잭션 안에서 실행)
+    public void follow(Long userId, Long followingId, long followerCount) {
+        if (followerCount < followerThreshold) {
+            List<Long> postIds = postEntityRepository.findIdsByUserId(followingId, Long.MAX_VALUE, PageRequest.of(0, backfillSize));
+            Timestamp now = Timestamp.from(Instant.now());
+            insert(postIds.stream()
+                    .map(postId -> new Object[]{userId, postId, followingId, now})
+                    .collect(Collectors.toList()));
+        }
+        evictAfterCommit(userId);
+    }
+
+    // 언팔로우한 유저의 포스트를 타임라인에서 뺀다. (언팔로우 트랜잭션 안에서 실행)
+    public void unfollow(Long userId, Long followingId) {
+        timelineEntityRepository.deleteAllByUserIdAndAuthorId(userId, followingId);
+        evictAfterCommit(userId);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Timeline fan-out did not finish. remaining={}", executor.getQueue().size());
+        }
+    }
+
+    private void fanout(PostCreatedEvent event) {
+        List<Long> receivers = new ArrayList<>();
+        long followerCount = userEntityRepository.findFollowerCountById(event.getAuthorId()).orElse(0L);
+        if (followerCount < followerThreshold) {
+            receivers.addAll(followEntityRepository.findFollowerIdsByFollowingId(event.getAuthorId()));
+        } else {
+            // 팔로워는 조회시 가져간다. 새 포스트가 바로 보이도록 최근 포스트 캐시만 비운다.
+            timelineCacheRepository.evictAuthorPostIds(event.getAuthorId());
+        }
+        receivers.add(event.getAuthorId());
+
+        Timestamp now = Timestamp.from(Instant.now());
+        for (int from = 0; from < receivers.size(); from += batchSize) {
+            List<Long> batch = receivers.subList(from, Math.min(from + batchSize, receivers.size()));
+            insert(batch.stream()
+                    .map(userId -> new Object[]{userId, event.getPostId(), event.getAuthorId(), now})
+                    .collect(Collectors.toList()));
+            batch.forEach(userId -> timelineCacheRepository.push(userId, event.getPostId()));
+        }
+    }
+
+    // 여러 작성자가 공유하는 최근 pull-recent-size 개로 답할 수 없는 (오래된) 페이지만 DB 에서 읽는다.
+    private List<Long> authorPostIds(Long authorId, Long cursor, int limit) {
+        List<Long> recent = timelineCacheRepository.getAuthorPostIds(authorId,
+                key -> postEntityRepository.findIdsByUserId(key, Long.MAX_VALUE, PageRequest.of(0, pullRecentSize)));
+        List<Long> page = recent.stream().filter(postId -> postId < cursor).limit(limit).collect(Collectors.toList());
+        if (page.size() == limit || recent.size() < pullRecentSize) {
+            return page;
+        }
+        return postEntityRepository.findIdsByUserId(authorId, cursor, PageRequest.of(0, limit));
+    }
+
+    // 각각 id 역순으로 정렬된 목록들을 하나로 합친다. (중복 제거, 최대 limit 개)
+    static List<Long> merge(List<List<Long>> sources, int limit) {
+        // {source index, position}
+        PriorityQueue<int[]> heap = new PriorityQueue<>(sources.size(),
+                Comparator.comparing((int[] it) -> sources.get(it[0]).get(it[1])).reversed());
+        for (int i = 0; i < sources.size(); i++) {
+            if (!sources.get(i).isEmpty()) {
+                heap.add(new int[]{i, 0});
+            }
+        }
+
+        List<Long> merged = new ArrayList<>(limit);
+        while (!heap.isEmpty() && merged.size() < limit) {
+            int[] top = heap.poll();
+            List<Long> source = sources.get(top[0]);
+            Long postId = source.get(top[1]);
+            if (merged.isEmpty() || !merged.get(merged.size() - 1).equals(postId)) {
+                merged.add(postId);
+            }
+            if (top[1] + 1 < source.size()) {
+                heap.add(new int[]{top[0], top[1] + 1});
+            }
+        }
+        return merged;
+    }
+
+    // {user_id, post_id, author_id, registered_at} 를 batch insert 한다.
+    // 이미 있는 row (재시도한 fan-out, 팔로우 전에 받은 포스트) 때문에 batch 가 실패하면 한 건씩 다시 넣으면서 중복 키만 건너뛴다.
+    // FK, 길이 등 다른 제약 위반은 그대로 던진다. (실패한 문장만 롤백되므로 팔로우 트랜잭션은 계속 쓸 수 있다)
+    private void insert(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        } catch (DuplicateKeyException e) {
+            for (Object[] row : rows) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, row);
+                } catch (DuplicateKeyException ignored) {
+                    // 이미 타임라인에 있는 포스트
+                }
+            }
+        }
+    }
+
+    // 커밋 이후에 다시 읽도록 메모리 타임라인을 지운다.
+    private void evictAfterCommit(Long userId) {
+        timelineCacheRepository.evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    timelineCacheRepository.evict(userId);
+                }
+            });
+        }
+    }
+}
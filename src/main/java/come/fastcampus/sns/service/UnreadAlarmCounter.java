@@ -0,0 +1,67 @@
+package come.fastcampus.sns.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import come.fastcampus.sns.repository.AlarmEntityRepository;
+import come.fastcampus.sns.repository.UserEntityRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 안 읽은 알람 수 (badge) 를 메모리에서 바로 반환한다.
+ * - 캐시에 없으면 last_read_alarm_id 이후의 알람 수를 DB 에서 한번 세서 올린다.
+ * - 새 알람 row 가 만들어지면 (AlarmWriter) 캐시에 있는 유저만 1 증가시킨다.
+ * - 읽음 처리하면 0 으로 초기화한다.
+ * 로딩과 증가가 겹치면 1 정도 틀어질 수 있고, 다음 읽음 처리나 캐시 만료시 보정된다.
+ * 다른 인스턴스에서 만든 알람, 보관 기간 정리, 포스트 삭제로 지워진 알람은 반영되지 않으므로
+ * 조회가 계속되어도 로딩 (또는 읽음 처리) 후 expired-time-ms 가 지나면 DB 에서 다시 센다. (expireAfterWrite)
+ */
+@Component
+public class UnreadAlarmCounter {
+
+    private static final String CACHE_NAME = "unread-alarm";
+
+    private final AlarmEntityRepository alarmEntityRepository;
+    private final UserEntityRepository userEntityRepository;
+    private final Cache<Long, AtomicLong> cache;
+
+    public UnreadAlarmCounter(AlarmEntityRepository alarmEntityRepository,
+                              UserEntityRepository userEntityRepository,
+                              @Value("${cache.unread-alarm.expired-time-ms:60000}") long expiredTimeMs,
+                              @Value("${cache.unread-alarm.maximum-size:100000}") long maximumSize,
+                              MeterRegistry meterRegistry) {
+        this.alarmEntityRepository = alarmEntityRepository;
+        this.userEntityRepository = userEntityRepository;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(expiredTimeMs))
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public long get(Long userId) {
+        return cache.get(userId, this::load).get();
+    }
+
+    public void increase(Long userId) {
+        AtomicLong counter = cache.getIfPresent(userId);
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+    }
+
+    public void reset(Long userId) {
+        cache.put(userId, new AtomicLong());
+    }
+
+    private AtomicLong load(Long userId) {
+        Long lastReadAlarmId = userEntityRepository.findLastReadAlarmIdById(userId);
+        return new AtomicLong(alarmEntityRepository.countByUserIdAndIdGreaterThan(userId, lastReadAlarmId == null ? 0 : lastReadAlarmId));
+    }
+}
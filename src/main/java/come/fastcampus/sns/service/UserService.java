@@ -5,17 +5,25 @@ import come.fastcampus.sns.exception.SnsApplicationException;
 import come.fastcampus.sns.model.Alarm;
 import come.fastcampus.sns.model.User;
 import come.fastcampus.sns.model.entity.UserEntity;
+import come.fastcampus.sns.model.entity.FollowEntity;
 import come.fastcampus.sns.repository.AlarmEntityRepository;
+import come.fastcampus.sns.repository.FollowEntityRepository;
+import come.fastcampus.sns.repository.UserCacheRepository;
 import come.fastcampus.sns.repository.UserEntityRepository;
+import come.fastcampus.sns.repository.UserNameFilterRepository;
+import come.fastcampus.sns.util.ConstraintViolationUtils;
 import come.fastcampus.sns.util.JwtTokenUtils;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
@@ -23,7 +31,12 @@ public class UserService {
 
     private final UserEntityRepository userEntityRepository;
     private final AlarmEntityRepository alarmEntityRepository;
-    private final BCryptPasswordEncoder encoder;
+    private final UserCacheRepository userCacheRepository;
+    private final UserNameFilterRepository userNameFilterRepository;
+    private final UnreadAlarmCounter unreadAlarmCounter;
+    private final FollowEntityRepository followEntityRepository;
+    private final TimelineService timelineService;
+    private final PasswordHasher passwordHasher;
 
     @Value("${jwt.secret-key}")
     private String secretKey;
@@ -32,44 +45,126 @@ public class UserService {
     private Long expiredTimeMs;
 
     public User loadUserByUserName(String userName) {
-        return userEntityRepository.findByUserName(userName).map(User::fromEntity).orElseThrow(() ->
-                new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
+        return userCacheRepository.getUser(userName).orElseGet(() -> {
+            User user = userEntityRepository.findByUserName(userName).map(User::fromEntity).orElseThrow(() ->
+                    new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", userName)));
+            userCacheRepository.setUser(user);
+            return user;
+        });
     }
 
-    @Transactional
+    // 해싱은 PasswordHasher 큐에서 최대 timeout 만큼 기다릴 수 있으므로 트랜잭션 (DB 커넥션) 없이 실행한다.
+    // DB 접근은 repository 의 짧은 트랜잭션에서만 한다. (join, login 공통)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User join(String userName, String password) {
-        // 회원가입하려는 userName으로 회원가입된 user가 있는지
-        userEntityRepository.findByUserName(userName).ifPresent(it -> {
-            throw new SnsApplicationException(ErrorCode.DUPLICATED_USER_NAME, String.format("%s is duplicated", userName));
-        });
+        String encodedPassword = passwordHasher.encode(password);
 
-        // 회원가입 진행 -> user를 등록
-        UserEntity userEntity = userEntityRepository.save(UserEntity.of(userName, encoder.encode(password)));
+        // 회원가입 진행 -> user를 등록 (이미 있는 userName 이면 user_name unique index 에 걸린다 -> throw)
+        UserEntity userEntity;
+        try {
+            userEntity = userEntityRepository.saveAndFlush(UserEntity.of(userName, encodedPassword));
+        } catch (DataIntegrityViolationException e) {
+            // NOT NULL, 길이 등 다른 제약조건 위반은 중복이 아니므로 그대로 던지고, 필터에도 넣지 않는다.
+            if (!ConstraintViolationUtils.isViolated(e, UserEntity.USER_NAME_UK)) {
+                throw e;
+            }
+            userNameFilterRepository.put(userName);
+            throw new SnsApplicationException(ErrorCode.DUPLICATED_USER_NAME, String.format("%s is duplicated", userName));
+        }
+        userNameFilterRepository.put(userName);
 
         return User.fromEntity(userEntity);
     }
 
+    // 필터에 없으면 DB 를 조회하지 않는다. 필터에 있으면 false positive 일 수 있으므로 DB 로 확인한다.
+    // 탈퇴 (soft delete) 한 유저의 이름도 unique 인덱스에 남아있으므로 사용할 수 없다.
+    public boolean isUserNameAvailable(String userName) {
+        return !userNameFilterRepository.mightContain(userName) || userEntityRepository.countByUserNameIncludingDeleted(userName) == 0;
+    }
+
     // TODO: implement
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String login(String userName, String password) {
         // 회원가입 여부 체크
         UserEntity userEntity = userEntityRepository.findByUserName(userName).orElseThrow(
                 () -> new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s is not founded", userName)));
 
         // 비밀번호 체크 (암호화)
-        if (!encoder.matches(password, userEntity.getPassword())) {
+        if (!passwordHasher.matches(password, userEntity.getPassword())) {
             throw new SnsApplicationException(ErrorCode.INVALID_PASSWORD);
         }
 
+        // 이전 strength 로 저장된 비밀번호는 평문을 알고 있는 지금 다시 해싱해서 저장한다.
+        if (passwordHasher.upgradeEncoding(userEntity.getPassword())) {
+            rehash(userEntity, password);
+        }
+
         // 토큰 생성
         String token = JwtTokenUtils.generateToken(userName, secretKey, expiredTimeMs);
 
         return token;
     }
 
+    // 다시 해싱하지 못해도 (바쁜 경우 등) 로그인은 성공시키고 다음 로그인에서 다시 시도한다.
+    // updatePassword 는 바깥 트랜잭션 없이 자기 트랜잭션에서 커밋되므로, 실패해도 로그인을 rollback-only 로 만들지 않는다.
+    private void rehash(UserEntity userEntity, String password) {
+        try {
+            userEntityRepository.updatePassword(userEntity.getId(), passwordHasher.encode(password));
+        } catch (RuntimeException e) {
+            log.warn("Failed to rehash password of user {}. {}", userEntity.getId(), e.toString());
+        }
+    }
+
     // TODO: alarm return
-    public Page<Alarm> alarmList(Integer userId, Pageable pageable) {
+    public Page<Alarm> alarmList(Long userId, Pageable pageable) {
 //        UserEntity userEntity = userEntityRepository.findByUserName(userName).orElseThrow(
 //                () -> new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s is not founded", userName)));
-        return alarmEntityRepository.findAllByUserId(userId, pageable).map(Alarm::fromEntity);
+        return alarmEntityRepository.findAllByUserId(userId, pageable);
+    }
+
+    public long unreadAlarmCount(Long userId) {
+        return unreadAlarmCounter.get(userId);
+    }
+
+    // 지금까지 받은 알람을 모두 읽음 처리한다.
+    @Transactional
+    public void readAlarms(Long userId) {
+        Long lastAlarmId = alarmEntityRepository.findMaxIdByUserId(userId);
+        if (lastAlarmId != null) {
+            userEntityRepository.updateLastReadAlarmId(userId, lastAlarmId);
+        }
+        unreadAlarmCounter.reset(userId);
+    }
+
+    @Transactional
+    public void follow(Long userId, String followingUserName) {
+        UserEntity following = userEntityRepository.findByUserName(followingUserName).orElseThrow(() ->
+                new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", followingUserName)));
+        if (following.getId().equals(userId)) {
+            throw new SnsApplicationException(ErrorCode.INVALID_REQUEST, String.format("user %s cannot follow oneself", userId));
+        }
+
+        // 이미 팔로우 한 경우 (follower_id, following_id) unique index 에 걸린다 -> throw
+        try {
+            followEntityRepository.saveAndFlush(FollowEntity.of(userEntityRepository.getReferenceById(userId), following));
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolationUtils.isViolated(e, FollowEntity.FOLLOWER_ID_FOLLOWING_ID_UK)) {
+                throw e;
+            }
+            throw new SnsApplicationException(ErrorCode.ALREADY_FOLLOWED, String.format("user %s already follow %s", userId, followingUserName));
+        }
+        userEntityRepository.increaseFollowerCount(following.getId(), 1);
+        timelineService.follow(userId, following.getId(), following.getFollowerCount() + 1);
+    }
+
+    @Transactional
+    public void unfollow(Long userId, String followingUserName) {
+        UserEntity following = userEntityRepository.findByUserName(followingUserName).orElseThrow(() ->
+                new SnsApplicationException(ErrorCode.USER_NOT_FOUND, String.format("%s not founded", followingUserName)));
+
+        if (followEntityRepository.deleteByFollowerIdAndFollowingId(userId, following.getId()) > 0) {
+            userEntityRepository.increaseFollowerCount(following.getId(), -1);
+            timelineService.unfollow(userId, following.getId());
+        }
     }
 }
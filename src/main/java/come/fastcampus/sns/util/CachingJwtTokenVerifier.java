@@ -0,0 +1,80 @@
+package come.fastcampus.sns.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import come.fastcampus.sns.model.TokenClaims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 bearer 토큰이 만료 전까지 반복해서 들어오므로, 검증된 claim 을 토큰 해시(SHA-256) 기준으로 캐싱한다.
+ * - 원본 토큰은 들고 있지 않는다.
+ * - 각 엔트리는 토큰의 exp 시점에 제거된다.
+ * - 엔트리 크기를 추정해서 maximumBytes 를 넘지 않도록 제거한다.
+ */
+public class CachingJwtTokenVerifier extends JwtTokenVerifier {
+
+    private static final String CACHE_NAME = "verified-token";
+    // 엔트리 / 키 / TokenClaims / Date 객체 헤더 등 고정 비용 추정치
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final Cache<String, TokenClaims> cache;
+
+    public CachingJwtTokenVerifier(String key, long maximumBytes, MeterRegistry meterRegistry) {
+        super(key);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((String hash, TokenClaims claims) ->
+                        ENTRY_OVERHEAD_BYTES + hash.length() + (claims.getUserName() == null ? 0 : claims.getUserName().length() * 2))
+                .expireAfter(new Expiry<String, TokenClaims>() {
+                    @Override
+                    public long expireAfterCreate(String hash, TokenClaims claims, long currentTime) {
+                        long remainMs = claims.getExpiredAt().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainMs, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String hash, TokenClaims claims, long currentTime, long currentDuration) {
+                        return expireAfterCreate(hash, claims, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String hash, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public TokenClaims verify(String token) {
+        String hash = hash(token);
+        TokenClaims claims = cache.getIfPresent(hash);
+        if (claims != null) {
+            return claims;
+        }
+
+        // 검증에 실패하면 예외가 그대로 전파되고 캐싱되지 않는다.
+        claims = super.verify(token);
+        cache.put(hash, claims);
+        return claims;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
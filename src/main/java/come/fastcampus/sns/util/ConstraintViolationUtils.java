@@ -0,0 +1,25 @@
+package come.fastcampus.sns.util;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+public class ConstraintViolationUtils {
+
+    // 위반된 제약조건이 constraintName 인지 확인한다. (FK 위반 등 다른 제약조건과 구분)
+    // DB 마다 이름 앞에 테이블명이 붙거나 대문자로 바뀌므로 대소문자 무시하고 포함 여부로 비교한다.
+    public static boolean isViolated(DataIntegrityViolationException e, String constraintName) {
+        String violated = null;
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                violated = ((ConstraintViolationException) cause).getConstraintName();
+                break;
+            }
+        }
+        if (violated == null) {
+            violated = e.getMostSpecificCause().getMessage();
+        }
+        return violated != null && violated.toLowerCase(Locale.ROOT).contains(constraintName.toLowerCase(Locale.ROOT));
+    }
+}
@@ -39,7 +39,7 @@ public class JwtTokenUtils {
     }
 
     // Key
-    private static Key getKey(String key) {
+    static Key getKey(String key) {
         byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
         return Keys.hmacShaKeyFor(keyBytes);
     }
@@ -0,0 +1,24 @@
+package come.fastcampus.sns.util;
+
+import come.fastcampus.sns.model.TokenClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * JwtTokenUtils 는 호출마다 parser 와 HMAC Key 를 새로 만들고, isExpired / getUserName 이 각각 서명 검증을 한다.
+ * JwtParser 는 immutable / thread-safe 하므로 한번만 만들어두고, 한번의 파싱으로 필요한 claim 을 모두 꺼낸다.
+ */
+public class JwtTokenVerifier {
+
+    private final JwtParser parser;
+
+    public JwtTokenVerifier(String key) {
+        this.parser = Jwts.parserBuilder().setSigningKey(JwtTokenUtils.getKey(key)).build();
+    }
+
+    public TokenClaims verify(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        return new TokenClaims(claims.get("userName", String.class), claims.getExpiration());
+    }
+}
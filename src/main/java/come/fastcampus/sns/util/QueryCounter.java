@@ -0,0 +1,22 @@
+package come.fastcampus.sns.util;
+
+/**
+ * 현재 스레드(요청)에서 실행된 SQL statement 수
+ * QueryCountInspector 가 statement 마다 증가시키고, QueryBudgetFilter / 테스트에서 읽고 초기화한다.
+ */
+public class QueryCounter {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    public static void increase() {
+        COUNT.get()[0]++;
+    }
+
+    public static int count() {
+        return COUNT.get()[0];
+    }
+
+    public static void clear() {
+        COUNT.remove();
+    }
+}
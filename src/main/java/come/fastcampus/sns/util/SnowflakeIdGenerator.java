@@ -0,0 +1,44 @@
+package come.fastcampus.sns.util;
+
+/**
+ * 시간순으로 증가하는 64bit id (Snowflake)
+ * | 1bit 0 | 41bit EPOCH 이후 ms | 10bit worker id | 12bit ms 내 sequence |
+ * - 같은 ms 에 4096 개를 넘으면 다음 ms 를 미리 당겨서 쓴다. (대기하지 않는다)
+ * - 시계가 뒤로 가면 마지막으로 쓴 ms 를 계속 쓴다. (id 는 항상 증가)
+ * worker id 는 인스턴스마다 달라야 한다.
+ */
+public class SnowflakeIdGenerator {
+
+    // 2022-01-01T00:00:00Z
+    private static final long EPOCH = 1640995200000L;
+    private static final int WORKER_ID_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    public static final long MAX_WORKER_ID = (1L << WORKER_ID_BITS) - 1;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    private final long workerId;
+    private long lastTimestamp = -1;
+    private long sequence;
+
+    public SnowflakeIdGenerator(long workerId) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException(String.format("worker id must be between 0 and %d but %d", MAX_WORKER_ID, workerId));
+        }
+        this.workerId = workerId;
+    }
+
+    public synchronized long nextId() {
+        long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                timestamp++;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = timestamp;
+
+        return ((timestamp - EPOCH) << (WORKER_ID_BITS + SEQUENCE_BITS)) | (workerId << SEQUENCE_BITS) | sequence;
+    }
+}
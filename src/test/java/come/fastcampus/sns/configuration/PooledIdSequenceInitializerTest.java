@@ -0,0 +1,45 @@
+package come.fastcampus.sns.configuration;
+
+import come.fastcampus.sns.model.entity.UserEntity;
+import come.fastcampus.sns.repository.UserEntityRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+
+@DataJpaTest
+@Import(JpaConfig.class)
+class PooledIdSequenceInitializerTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+
+    @Test
+    @DisplayName("시퀀스가 이미 MAX(id) 보다 큰 경우")
+    void sequence_above_max_id() {
+        userEntityRepository.saveAndFlush(UserEntity.of("userName", "password"));
+
+        Assertions.assertDoesNotThrow(() -> new PooledIdSequenceInitializer(entityManagerFactory, jdbcTemplate).afterSingletonsInstantiated());
+    }
+
+    @Test
+    @DisplayName("기존 DB 의 MAX(id) 가 시퀀스보다 큰 경우 시작을 멈춘다")
+    void sequence_below_max_id() {
+        UserEntity user = userEntityRepository.saveAndFlush(UserEntity.of("userName", "password"));
+        // IDENTITY 로 발급되었던 기존 row
+        jdbcTemplate.update("UPDATE \"user\" SET id = ? WHERE id = ?", 1_000_000L, user.getId());
+
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class,
+                () -> new PooledIdSequenceInitializer(entityManagerFactory, jdbcTemplate).afterSingletonsInstantiated());
+        Assertions.assertTrue(e.getMessage().contains("RESTART WITH 1000001"));
+    }
+}
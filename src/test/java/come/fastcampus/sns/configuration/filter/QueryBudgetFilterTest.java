@@ -0,0 +1,37 @@
+package come.fastcampus.sns.configuration.filter;
+
+import come.fastcampus.sns.fixture.WithMockSnsUser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = {
+        "query-budget.max-statements=0",
+        "query-budget.fail-on-exceed=true"
+})
+@AutoConfigureMockMvc
+class QueryBudgetFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @WithMockSnsUser
+    @DisplayName("fail-on-exceed 일 때 요청의 SQL statement 수가 budget 을 넘으면 요청이 실패하는 경우")
+    void query_budget_exceeded() {
+        // 좋아요 수 조회는 post.like_count 를 한번 조회한다. (budget 0)
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class, () ->
+                mockMvc.perform(get("/api/v1/posts/1/likes")
+                        .contentType(MediaType.APPLICATION_JSON)));
+
+        Assertions.assertTrue(e.getMessage().contains("GET /api/v1/posts/1/likes"), e.getMessage());
+        Assertions.assertTrue(e.getMessage().contains("(budget 0)"), e.getMessage());
+    }
+}
@@ -6,6 +6,7 @@ import come.fastcampus.sns.controller.request.PostCreateRequest;
 import come.fastcampus.sns.controller.request.PostModifyRequest;
 import come.fastcampus.sns.exception.ErrorCode;
 import come.fastcampus.sns.exception.SnsApplicationException;
+import come.fastcampus.sns.fixture.WithMockSnsUser;
 import come.fastcampus.sns.service.PostService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,14 +15,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithAnonymousUser;
-import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -40,7 +46,7 @@ class PostControllerTest {
     private PostService postService;
 
     @Test
-    @WithMockUser
+    @WithMockSnsUser
     @DisplayName("포스트 작성 - 성공")
     void post_save_success() throws Exception {
 
@@ -54,6 +60,32 @@ class PostControllerTest {
                 .andExpect(status().isOk());
     }
     
+    @Test
+    @WithMockSnsUser
+    @DisplayName("포스트 여러개 작성")
+    void post_bulk_save_success() throws Exception {
+        when(postService.createAll(any(), any())).thenReturn(List.of(1L, 2L));
+
+        mockMvc.perform(post("/api/v1/posts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(List.of(new PostCreateRequest("title1", "body1"), new PostCreateRequest("title2", "body2"))))
+                ).andDo(print())
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockSnsUser
+    @DisplayName("포스트 여러개 작성시 요청이 비어있는 경우")
+    void post_bulk_save_failure() throws Exception {
+        when(postService.createAll(any(), any())).thenThrow(new SnsApplicationException(ErrorCode.INVALID_REQUEST));
+
+        mockMvc.perform(post("/api/v1/posts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(List.of()))
+                ).andDo(print())
+                .andExpect(status().is(ErrorCode.INVALID_REQUEST.getStatus().value()));
+    }
+
     @Test
     @WithAnonymousUser // 익명의 유저
     @DisplayName("포스트작성시 로그인하지 않은 경우")
@@ -85,7 +117,7 @@ class PostControllerTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockSnsUser
     @DisplayName("포스트수정시 본인이 작성한 글이 아니라면 에러 발생")
     void post_put_failure_2() throws Exception {
 
@@ -94,7 +126,7 @@ class PostControllerTest {
 
         // mocking
         // TODO
-        doThrow(new SnsApplicationException(ErrorCode.INVALID_PASSWORD)).when(postService).modify(eq(title), eq(body), any(), eq(1));
+        doThrow(new SnsApplicationException(ErrorCode.INVALID_PASSWORD)).when(postService).modify(eq(title), eq(body), any(), eq(1L));
 
         mockMvc.perform(put("/api/v1/posts/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -104,7 +136,7 @@ class PostControllerTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockSnsUser
     @DisplayName("포스트수정시 포스트가 존재하지 않을 경우")
     void post_put_failure_3() throws Exception {
 
@@ -113,7 +145,7 @@ class PostControllerTest {
 
         // mocking
         // TODO
-        doThrow(new SnsApplicationException(ErrorCode.POST_NOT_FOUND)).when(postService).modify(eq(title), eq(body), any(), eq(1));
+        doThrow(new SnsApplicationException(ErrorCode.POST_NOT_FOUND)).when(postService).modify(eq(title), eq(body), any(), eq(1L));
 
         mockMvc.perform(put("/api/v1/posts/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -123,7 +155,7 @@ class PostControllerTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockSnsUser
     @DisplayName("포스트 삭제 - 성공")
     void post_delete() throws Exception {
 
@@ -145,7 +177,7 @@ class PostControllerTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockSnsUser
     @DisplayName("포스트 삭제시 - 작성자와 삭제요청자가 다를경우")
     void post_delete_failure_2() throws Exception {
         // mocking
@@ -159,7 +191,7 @@ class PostControllerTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockSnsUser
     @DisplayName("포스트 삭제시 - 삭제하려는 포스트가 존재하지 않을 경우")
     void post_delete_failure_3() throws Exception {
         // mocking
@@ -172,7 +204,7 @@ class PostControllerTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockSnsUser
     @DisplayName("피드목록")
     void post_list_success() throws Exception {
         // TODO: mocking
@@ -197,6 +229,20 @@ class PostControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    @WithMockSnsUser
+    @DisplayName("피드목록 - cursor 페이징")
+    void post_scroll_success() throws Exception {
+        when(postService.scroll(any(), anyInt())).thenReturn(new SliceImpl<>(List.of()));
+
+        mockMvc.perform(get("/api/v1/posts/scroll")
+                        .param("cursor", "100")
+                        .param("size", "20")
+                        .contentType(MediaType.APPLICATION_JSON)
+                ).andDo(print())
+                .andExpect(status().isOk());
+    }
+
     @Test
     @WithAnonymousUser
     @DisplayName("내 피드 목록 요청시 로그인하지 않은 경우")
@@ -211,7 +257,7 @@ class PostControllerTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockSnsUser
     @DisplayName("좋아요 기능")
     void post_good_success() throws Exception {
         // TODO: mocking
@@ -235,7 +281,7 @@ class PostControllerTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockSnsUser
     @DisplayName("좋아요 버튼 클릭시 게시물이 없는 경우")
     void post_good_success_failure_2() throws Exception {
         // TODO: mocking
@@ -248,7 +294,7 @@ class PostControllerTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockSnsUser
     @DisplayName("댓글기능")
     void comment_success() throws Exception {
         // TODO: mocking
@@ -274,7 +320,7 @@ class PostControllerTest {
     }
 
     @Test
-    @WithMockUser
+    @WithMockSnsUser
     @DisplayName("댓글작성시 게시물이 없는 경우")
     void comment_failure_without_post() throws Exception {
         // TODO: mocking
@@ -286,5 +332,18 @@ class PostControllerTest {
                 ).andDo(print())
                 .andExpect(status().isNotFound());
     }
-}
 
+    @Test
+    @WithMockSnsUser
+    @DisplayName("댓글 목록 조회시 댓글을 한번만 조회하는 경우")
+    void comment_list_success() throws Exception {
+        when(postService.getComments(any(), any())).thenReturn(Page.empty());
+
+        mockMvc.perform(get("/api/v1/posts/1/comments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                ).andDo(print())
+                .andExpect(status().isOk());
+
+        verify(postService, times(1)).getComments(eq(1L), any());
+    }
+}
@@ -5,7 +5,7 @@ import come.fastcampus.sns.model.entity.UserEntity;
 
 public class PostEntityFixture {
 
-    public static PostEntity get(String userName, Integer postId, Integer userid) {
+    public static PostEntity get(String userName, Long postId, Long userid) {
         UserEntity user = new UserEntity();
         user.setId(userid);
         user.setUserName(userName);
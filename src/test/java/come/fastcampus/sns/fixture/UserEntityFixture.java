@@ -4,7 +4,7 @@ import come.fastcampus.sns.model.entity.UserEntity;
 
 public class UserEntityFixture {
 
-    public static UserEntity get(String userName, String password, Integer userId) {
+    public static UserEntity get(String userName, String password, Long userId) {
         UserEntity userEntity = new UserEntity();
         userEntity.setId(userId);
         userEntity.setUserName(userName);
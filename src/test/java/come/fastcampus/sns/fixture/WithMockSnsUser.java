@@ -0,0 +1,21 @@
+package come.fastcampus.sns.fixture;
+
+import org.springframework.security.test.context.support.WithSecurityContext;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * JwtTokenFilter 처럼 SecurityContext 의 principal 로 User 를 넣는다. (@WithMockUser 는 스프링 User 를 넣는다)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@WithSecurityContext(factory = WithMockSnsUserSecurityContextFactory.class)
+public @interface WithMockSnsUser {
+
+    long id() default 1L;
+
+    String userName() default "userName";
+}
@@ -0,0 +1,19 @@
+package come.fastcampus.sns.fixture;
+
+import come.fastcampus.sns.model.User;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithSecurityContextFactory;
+
+public class WithMockSnsUserSecurityContextFactory implements WithSecurityContextFactory<WithMockSnsUser> {
+
+    @Override
+    public SecurityContext createSecurityContext(WithMockSnsUser annotation) {
+        User user = User.fromEntity(UserEntityFixture.get(annotation.userName(), "password", annotation.id()));
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        return context;
+    }
+}
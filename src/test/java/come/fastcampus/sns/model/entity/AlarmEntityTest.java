@@ -0,0 +1,28 @@
+package come.fastcampus.sns.model.entity;
+
+import come.fastcampus.sns.model.AlarmArgs;
+import come.fastcampus.sns.model.AlarmType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class AlarmEntityTest {
+
+    @Test
+    @DisplayName("같은 사람이 여러번 알람을 발생시켜도 사람 수는 한번만 세는 경우")
+    void coalesce_counts_distinct_actors() {
+        AlarmEntity entity = AlarmEntity.of(new UserEntity(), AlarmType.NEW_COMMENT_ON_POST, new AlarmArgs(2L, 100L));
+
+        entity.coalesce(new AlarmArgs(2L, 100L));
+        entity.coalesce(new AlarmArgs(3L, 100L));
+        entity.coalesce(new AlarmArgs(2L, 100L));
+        entity.coalesce(new AlarmArgs(4L, 100L));
+        entity.coalesce(new AlarmArgs(5L, 100L));
+
+        Assertions.assertEquals(4, entity.getActorCount());
+        Assertions.assertEquals(List.of(5L, 4L, 2L), entity.getLatestActorIds());
+        Assertions.assertEquals(5L, entity.getArgs().getFromUserId());
+    }
+}
@@ -0,0 +1,53 @@
+package come.fastcampus.sns.repository;
+
+import come.fastcampus.sns.configuration.JpaConfig;
+import come.fastcampus.sns.model.AlarmType;
+import come.fastcampus.sns.model.entity.UserEntity;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+@DataJpaTest
+@Import(JpaConfig.class)
+class AlarmEntityRepositoryTest {
+
+    @Autowired
+    private AlarmEntityRepository alarmEntityRepository;
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("보관 기간이 지난 알람을 soft delete 여부와 상관없이 한번에 limit 개씩만 지우는 경우")
+    void deleteAllRegisteredBefore_limit() {
+        Long userId = userEntityRepository.saveAndFlush(UserEntity.of("userName", "password")).getId();
+        Instant now = Instant.now();
+        Timestamp expired = Timestamp.from(now.minus(Duration.ofDays(100)));
+        insertAlarm(1L, userId, expired, null);
+        insertAlarm(2L, userId, expired, null);
+        insertAlarm(3L, userId, expired, expired);
+        insertAlarm(4L, userId, Timestamp.from(now), null);
+        Timestamp before = Timestamp.from(now.minus(Duration.ofDays(90)));
+
+        Assertions.assertEquals(2, alarmEntityRepository.deleteAllRegisteredBefore(before, 2));
+        Assertions.assertEquals(1, alarmEntityRepository.deleteAllRegisteredBefore(before, 2));
+        Assertions.assertEquals(0, alarmEntityRepository.deleteAllRegisteredBefore(before, 2));
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"alarm\"", Integer.class));
+        Assertions.assertEquals(4L, jdbcTemplate.queryForObject("SELECT id FROM \"alarm\"", Long.class));
+    }
+
+    // args (json) 없이 알람 row 만 만든다.
+    private void insertAlarm(Long id, Long userId, Timestamp registeredAt, Timestamp deletedAt) {
+        jdbcTemplate.update("INSERT INTO \"alarm\" (id, user_id, alarm_type, target_id, actor_count, version, registered_at, deleted_at) " +
+                "VALUES (?, ?, ?, 1, 1, 0, ?, ?)", id, userId, AlarmType.NEW_LIKE_ON_POST.name(), registeredAt, deletedAt);
+    }
+}
@@ -0,0 +1,84 @@
+package come.fastcampus.sns.repository;
+
+import come.fastcampus.sns.model.entity.LikeEntity;
+import come.fastcampus.sns.model.entity.PostEntity;
+import come.fastcampus.sns.model.entity.UserEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // 스레드마다 별도 트랜잭션으로 커밋
+class LikeEntityRepositoryTest {
+
+    private static final int THREAD_COUNT = 10;
+
+    @Autowired
+    private LikeEntityRepository likeEntityRepository;
+    @Autowired
+    private PostEntityRepository postEntityRepository;
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        likeEntityRepository.deleteAllInBatch();
+        postEntityRepository.deleteAllInBatch();
+        userEntityRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("같은 좋아요를 여러 스레드에서 동시에 요청해도 1개만 저장되는 경우")
+    void like_concurrently() throws Exception {
+        UserEntity user = userEntityRepository.save(UserEntity.of("userName", "password"));
+        PostEntity post = postEntityRepository.save(PostEntity.of("title", "body", user));
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger success = new AtomicInteger();
+        AtomicInteger alreadyLiked = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            likeEntityRepository.saveAndFlush(LikeEntity.of(user, post)));
+                    success.incrementAndGet();
+                } catch (DataIntegrityViolationException e) {
+                    alreadyLiked.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        Assertions.assertEquals(1, success.get());
+        Assertions.assertEquals(THREAD_COUNT - 1, alreadyLiked.get());
+        Assertions.assertEquals(1, likeEntityRepository.count());
+    }
+}
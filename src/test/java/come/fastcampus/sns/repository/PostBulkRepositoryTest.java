@@ -0,0 +1,62 @@
+package come.fastcampus.sns.repository;
+
+import come.fastcampus.sns.configuration.JpaConfig;
+import come.fastcampus.sns.model.entity.PostEntity;
+import come.fastcampus.sns.model.entity.UserEntity;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@DataJpaTest(properties = "post.bulk.jdbc-batch-size=2")
+@Import({JpaConfig.class, PostBulkRepository.class})
+class PostBulkRepositoryTest {
+
+    @Autowired
+    private PostBulkRepository postBulkRepository;
+    @Autowired
+    private PostEntityRepository postEntityRepository;
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("JDBC batch 로 insert 한 포스트가 발급된 id 로 저장되는 경우")
+    void saveAll() {
+        UserEntity user = userEntityRepository.saveAndFlush(UserEntity.of("userName", "password"));
+        // batch-size 2 -> 2, 2, 1 개씩 나눠서 insert
+        List<PostEntity> entities = IntStream.range(0, 5)
+                .mapToObj(i -> PostEntity.of("title" + i, "body" + i, user))
+                .collect(Collectors.toList());
+
+        List<Long> ids = postBulkRepository.saveAll(entities).stream().map(PostEntity::getId).collect(Collectors.toList());
+        entityManager.clear();
+
+        Assertions.assertEquals(5, ids.stream().distinct().count());
+        Map<Long, PostEntity> saved = postEntityRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(PostEntity::getId, Function.identity()));
+        Assertions.assertEquals(5, saved.size());
+        for (int i = 0; i < ids.size(); i++) {
+            PostEntity post = saved.get(ids.get(i));
+            Assertions.assertEquals("title" + i, post.getTitle());
+            Assertions.assertEquals("body" + i, post.getBody());
+            Assertions.assertEquals(user.getId(), post.getUser().getId());
+            Assertions.assertEquals(0, post.getLikeCount());
+            Assertions.assertNotNull(post.getRegisteredAt());
+        }
+
+        // 이후 JPA 로 저장하는 포스트와 id 가 겹치지 않는다.
+        PostEntity next = postEntityRepository.saveAndFlush(PostEntity.of("title", "body", userEntityRepository.getReferenceById(user.getId())));
+        Assertions.assertFalse(ids.contains(next.getId()));
+    }
+}
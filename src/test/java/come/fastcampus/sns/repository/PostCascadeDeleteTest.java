@@ -0,0 +1,143 @@
+package come.fastcampus.sns.repository;
+
+import come.fastcampus.sns.configuration.JpaConfig;
+import come.fastcampus.sns.model.AlarmType;
+import come.fastcampus.sns.model.entity.CommentEntity;
+import come.fastcampus.sns.model.entity.LikeEntity;
+import come.fastcampus.sns.model.entity.PostEntity;
+import come.fastcampus.sns.model.entity.UserEntity;
+import come.fastcampus.sns.scheduler.SoftDeletePurgeScheduler;
+import come.fastcampus.sns.service.PostCascadeDeleteService;
+import come.fastcampus.sns.util.QueryCounter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+@DataJpaTest
+@Import({JpaConfig.class, PostCascadeDeleteService.class})
+class PostCascadeDeleteTest {
+
+    private static final int CHILDREN = 3;
+    private static final long OTHER_TARGET_ALARM_ID = 9_999L;
+
+    @Autowired
+    private PostCascadeDeleteService postCascadeDeleteService;
+    @Autowired
+    private PostEntityRepository postEntityRepository;
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+    @Autowired
+    private LikeEntityRepository likeEntityRepository;
+    @Autowired
+    private CommentEntityRepository commentEntityRepository;
+    @Autowired
+    private AlarmEntityRepository alarmEntityRepository;
+    @Autowired
+    private TimelineEntityRepository timelineEntityRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @MockBean
+    private PostCacheRepository postCacheRepository;
+    @MockBean
+    private TimelineCacheRepository timelineCacheRepository;
+
+    @Test
+    @DisplayName("포스트 삭제시 좋아요, 댓글, 포스트 알람이 딸린 row 수와 상관없이 4번의 문장으로 soft delete 되는 경우")
+    void delete_statement_count() {
+        Long postId = savePostWithChildren();
+        PostEntity post = postEntityRepository.findById(postId).orElseThrow();
+        QueryCounter.clear();
+
+        postCascadeDeleteService.delete(post);
+        entityManager.flush();
+
+        Assertions.assertEquals(4, QueryCounter.count());
+        Assertions.assertEquals(CHILDREN, countDeleted("\"Like\"", "post_id", postId));
+        Assertions.assertEquals(CHILDREN, countDeleted("\"comment\"", "post_id", postId));
+        Assertions.assertEquals(CHILDREN, countDeleted("\"alarm\"", "target_id", postId));
+        Assertions.assertEquals(1, countDeleted("\"post\"", "id", postId));
+        // 다른 포스트에 대한 알람은 그대로 남는다.
+        Assertions.assertEquals(0, countDeleted("\"alarm\"", "id", OTHER_TARGET_ALARM_ID));
+    }
+
+    @Test
+    @DisplayName("soft delete 된 row 를 hard delete 할 때 한번에 limit 개씩만 지우는 경우")
+    void purge_limit() {
+        Long postId = savePostWithChildren();
+        postCascadeDeleteService.delete(postEntityRepository.findById(postId).orElseThrow());
+        entityManager.flush();
+        Timestamp before = Timestamp.from(Instant.now().plusSeconds(60));
+
+        Assertions.assertEquals(2, commentEntityRepository.purgeDeletedBefore(before, 2));
+        Assertions.assertEquals(1, commentEntityRepository.purgeDeletedBefore(before, 2));
+        Assertions.assertEquals(0, commentEntityRepository.purgeDeletedBefore(before, 2));
+    }
+
+    @Test
+    @DisplayName("grace 기간이 지난 포스트와 딸린 row 가 자식 테이블부터 batch 단위로 모두 지워지는 경우")
+    void purge_all() {
+        Long postId = savePostWithChildren();
+        jdbcTemplate.update("INSERT INTO \"timeline\" (user_id, post_id, author_id, registered_at) VALUES (?, ?, ?, CURRENT_TIMESTAMP)", 1L, postId, 1L);
+        postCascadeDeleteService.delete(postEntityRepository.findById(postId).orElseThrow());
+        entityManager.flush();
+        entityManager.clear();
+        Timestamp deletedAt = Timestamp.from(Instant.now().minus(Duration.ofDays(8)));
+        for (String table : new String[]{"\"Like\"", "\"comment\"", "\"alarm\"", "\"post\""}) {
+            jdbcTemplate.update("UPDATE " + table + " SET deleted_at = ? WHERE deleted_at IS NOT NULL", deletedAt);
+        }
+
+        new SoftDeletePurgeScheduler(likeEntityRepository, commentEntityRepository, alarmEntityRepository,
+                timelineEntityRepository, postEntityRepository, true, 7, 2, 0).purge();
+
+        Assertions.assertEquals(0, count("\"Like\"", "post_id", postId));
+        Assertions.assertEquals(0, count("\"comment\"", "post_id", postId));
+        Assertions.assertEquals(0, count("\"alarm\"", "target_id", postId));
+        Assertions.assertEquals(0, count("\"timeline\"", "post_id", postId));
+        Assertions.assertEquals(0, count("\"post\"", "id", postId));
+        Assertions.assertEquals(1, count("\"alarm\"", "id", OTHER_TARGET_ALARM_ID));
+    }
+
+    // 작성자의 포스트에 CHILDREN 명이 좋아요, 댓글을 남기고 작성자는 그 수 만큼 알람을 받은 상태
+    private Long savePostWithChildren() {
+        UserEntity author = userEntityRepository.save(UserEntity.of("author", "password"));
+        PostEntity post = postEntityRepository.save(PostEntity.of("title", "body", author));
+        for (int i = 0; i < CHILDREN; i++) {
+            UserEntity user = userEntityRepository.save(UserEntity.of("userName" + i, "password"));
+            likeEntityRepository.save(LikeEntity.of(user, post));
+            commentEntityRepository.save(CommentEntity.of(user, post, "comment"));
+        }
+        entityManager.flush();
+
+        for (int i = 0; i < CHILDREN; i++) {
+            insertAlarm(1_000L + i, author.getId(), AlarmType.NEW_COMMENT_ON_POST, post.getId());
+        }
+        insertAlarm(OTHER_TARGET_ALARM_ID, author.getId(), AlarmType.NEW_LIKE_ON_POST, post.getId() + 1);
+        entityManager.clear();
+        return post.getId();
+    }
+
+    private void insertAlarm(Long id, Long userId, AlarmType alarmType, Long targetId) {
+        jdbcTemplate.update("INSERT INTO \"alarm\" (id, user_id, alarm_type, target_id, actor_count, version, registered_at) " +
+                "VALUES (?, ?, ?, ?, 1, 0, CURRENT_TIMESTAMP)", id, userId, alarmType.name(), targetId);
+    }
+
+    private int countDeleted(String table, String column, Long value) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ? AND deleted_at IS NOT NULL", Integer.class, value);
+    }
+
+    private int count(String table, String column, Long value) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ?", Integer.class, value);
+    }
+}
@@ -0,0 +1,104 @@
+package come.fastcampus.sns.repository;
+
+import come.fastcampus.sns.configuration.JpaConfig;
+import come.fastcampus.sns.model.Post;
+import come.fastcampus.sns.model.entity.PostEntity;
+import come.fastcampus.sns.model.entity.UserEntity;
+import come.fastcampus.sns.util.QueryCounter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import javax.persistence.EntityManager;
+
+@DataJpaTest
+@Import(JpaConfig.class)
+class PostEntityRepositoryTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private PostEntityRepository postEntityRepository;
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("피드 목록 조회시 작성자를 함께 조회해서 페이지당 쿼리가 2번(목록, count)만 발생하는 경우")
+    void feed_query_count() {
+        // 작성자가 모두 다른 포스트 -> 작성자를 따로 조회하면 row 수 만큼 쿼리가 발생한다.
+        for (int i = 0; i < PAGE_SIZE + 5; i++) {
+            UserEntity user = userEntityRepository.save(UserEntity.of("userName" + i, "password"));
+            postEntityRepository.save(PostEntity.of("title", "body", user));
+        }
+        clearPersistenceContextAndQueryCount();
+
+        Page<Post> page = postEntityRepository.findAllWithUser(PageRequest.of(0, PAGE_SIZE)).map(Post::fromEntity);
+
+        Assertions.assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        Assertions.assertEquals(2, QueryCounter.count());
+    }
+
+    @Test
+    @DisplayName("내 피드 목록 조회시 작성자를 함께 조회해서 페이지당 쿼리가 2번(목록, count)만 발생하는 경우")
+    void my_feed_query_count() {
+        UserEntity user = userEntityRepository.save(UserEntity.of("userName", "password"));
+        for (int i = 0; i < PAGE_SIZE + 5; i++) {
+            postEntityRepository.save(PostEntity.of("title", "body", user));
+        }
+        clearPersistenceContextAndQueryCount();
+
+        Page<Post> page = postEntityRepository.findAllWithUserByUser(user, PageRequest.of(0, PAGE_SIZE)).map(Post::fromEntity);
+
+        Assertions.assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        Assertions.assertEquals(2, QueryCounter.count());
+    }
+
+    @Test
+    @DisplayName("cursor 페이징시 count 쿼리 없이 cursor 보다 오래된 포스트만 조회되는 경우")
+    void feed_scroll() {
+        UserEntity user = userEntityRepository.save(UserEntity.of("userName", "password"));
+        for (int i = 0; i < PAGE_SIZE + 5; i++) {
+            postEntityRepository.save(PostEntity.of("title", "body", user));
+        }
+        clearPersistenceContextAndQueryCount();
+
+        Slice<PostEntity> first = postEntityRepository.findAllWithUserByIdLessThan(Long.MAX_VALUE, PageRequest.of(0, PAGE_SIZE));
+        Long cursor = first.getContent().get(first.getNumberOfElements() - 1).getId();
+        Slice<PostEntity> second = postEntityRepository.findAllWithUserByIdLessThan(cursor, PageRequest.of(0, PAGE_SIZE));
+
+        Assertions.assertTrue(first.hasNext());
+        Assertions.assertEquals(PAGE_SIZE, first.getNumberOfElements());
+        Assertions.assertFalse(second.hasNext());
+        Assertions.assertEquals(5, second.getNumberOfElements());
+        Assertions.assertTrue(second.getContent().stream().allMatch(it -> it.getId() < cursor));
+        Assertions.assertEquals(2, QueryCounter.count());
+    }
+
+    @Test
+    @DisplayName("포스트를 읽은 뒤 좋아요 수가 증가해도 포스트 수정이 좋아요 수를 덮어쓰지 않는 경우")
+    void modify_keeps_like_count() {
+        UserEntity user = userEntityRepository.save(UserEntity.of("userName", "password"));
+        PostEntity post = postEntityRepository.saveAndFlush(PostEntity.of("title", "body", user));
+
+        // post 를 읽어둔 상태에서 다른 요청의 좋아요가 반영된다.
+        postEntityRepository.increaseLikeCount(post.getId(), 1);
+        post.setTitle("modified");
+        postEntityRepository.saveAndFlush(post);
+
+        Assertions.assertEquals(1L, postEntityRepository.findLikeCountById(post.getId()).orElseThrow());
+    }
+
+    private void clearPersistenceContextAndQueryCount() {
+        entityManager.flush();
+        entityManager.clear();
+        QueryCounter.clear();
+    }
+}
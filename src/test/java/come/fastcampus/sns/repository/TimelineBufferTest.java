@@ -0,0 +1,70 @@
+package come.fastcampus.sns.repository;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class TimelineBufferTest {
+
+    @Test
+    @DisplayName("순서가 뒤바뀌거나 중복으로 들어온 id 도 최신순으로 한번만 들고 있는 경우")
+    void add_order() {
+        TimelineBuffer buffer = new TimelineBuffer(3);
+        buffer.fill(List.of(), true);
+
+        buffer.add(1L);
+        buffer.add(3L);
+        buffer.add(2L);
+        buffer.add(3L);
+
+        Assertions.assertEquals(List.of(3L, 2L, 1L), buffer.page(Long.MAX_VALUE, 10));
+        Assertions.assertEquals(List.of(1L), buffer.page(2L, 10));
+    }
+
+    @Test
+    @DisplayName("가득 차면 가장 오래된 id 를 버리고 buffer 보다 오래된 페이지는 답하지 않는 경우")
+    void add_evict_oldest() {
+        TimelineBuffer buffer = new TimelineBuffer(3);
+        buffer.fill(List.of(3L, 2L, 1L), true);
+
+        buffer.add(4L);
+        // buffer 의 어떤 id 보다 오래된 id 는 버린다.
+        buffer.add(0L);
+
+        Assertions.assertEquals(List.of(4L, 3L, 2L), buffer.page(Long.MAX_VALUE, 3));
+        Assertions.assertEquals(List.of(3L, 2L), buffer.page(4L, 2));
+        Assertions.assertNull(buffer.page(Long.MAX_VALUE, 10));
+        Assertions.assertNull(buffer.page(3L, 2));
+    }
+
+    @Test
+    @DisplayName("ring 을 여러 바퀴 돌아도 최신 capacity 개를 최신순으로 들고 있는 경우")
+    void add_wrap_around() {
+        TimelineBuffer buffer = new TimelineBuffer(3);
+        buffer.fill(List.of(), true);
+
+        for (long postId = 1; postId <= 10; postId++) {
+            buffer.add(postId);
+        }
+        buffer.add(9L);
+        buffer.add(8L);
+
+        Assertions.assertEquals(List.of(10L, 9L, 8L), buffer.page(Long.MAX_VALUE, 3));
+    }
+
+    @Test
+    @DisplayName("테이블에서 채우기 전이거나 테이블의 일부만 들고 있어 모자라면 null 을 반환하는 경우")
+    void page_incomplete() {
+        TimelineBuffer buffer = new TimelineBuffer(3);
+        buffer.add(5L);
+
+        Assertions.assertNull(buffer.page(Long.MAX_VALUE, 1));
+
+        buffer.fill(List.of(5L, 4L), false);
+
+        Assertions.assertEquals(List.of(5L, 4L), buffer.page(Long.MAX_VALUE, 2));
+        Assertions.assertNull(buffer.page(Long.MAX_VALUE, 3));
+    }
+}
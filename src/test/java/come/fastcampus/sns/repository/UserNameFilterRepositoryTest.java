@@ -0,0 +1,46 @@
+package come.fastcampus.sns.repository;
+
+import come.fastcampus.sns.configuration.JpaConfig;
+import come.fastcampus.sns.model.entity.UserEntity;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest
+@Import({JpaConfig.class, UserNameFilterRepository.class})
+class UserNameFilterRepositoryTest {
+
+    @Autowired
+    private UserNameFilterRepository userNameFilterRepository;
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+
+    @Test
+    @DisplayName("collation 이 같게 보는 이름 (대소문자, 악센트, 끝 공백) 은 필터에도 있다고 하는 경우")
+    void mightContain_collation() {
+        userEntityRepository.saveAndFlush(UserEntity.of("bob", "password"));
+        userNameFilterRepository.load();
+        userNameFilterRepository.put("José");
+
+        Assertions.assertTrue(userNameFilterRepository.mightContain("BOB"));
+        Assertions.assertTrue(userNameFilterRepository.mightContain("bob  "));
+        Assertions.assertTrue(userNameFilterRepository.mightContain("jose"));
+    }
+
+    @Test
+    @DisplayName("탈퇴 (soft delete) 한 유저의 이름도 필터에 담기고 DB 확인에서도 사용 중인 경우")
+    void soft_deleted_user_name() {
+        UserEntity user = userEntityRepository.saveAndFlush(UserEntity.of("deletedUser", "password"));
+        userEntityRepository.delete(user);
+        userEntityRepository.flush();
+
+        userNameFilterRepository.load();
+
+        Assertions.assertTrue(userEntityRepository.findByUserName("deletedUser").isEmpty());
+        Assertions.assertTrue(userNameFilterRepository.mightContain("deletedUser"));
+        Assertions.assertEquals(1, userEntityRepository.countByUserNameIncludingDeleted("deletedUser"));
+    }
+}
@@ -0,0 +1,76 @@
+package come.fastcampus.sns.scheduler;
+
+import come.fastcampus.sns.configuration.JpaConfig;
+import come.fastcampus.sns.model.entity.LikeEntity;
+import come.fastcampus.sns.model.entity.PostEntity;
+import come.fastcampus.sns.model.entity.UserEntity;
+import come.fastcampus.sns.repository.LikeEntityRepository;
+import come.fastcampus.sns.repository.PostEntityRepository;
+import come.fastcampus.sns.repository.UserEntityRepository;
+import come.fastcampus.sns.service.LikeCountBuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManager;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import(JpaConfig.class)
+class LikeCountReconcileSchedulerTest {
+
+    @Autowired
+    private PostEntityRepository postEntityRepository;
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+    @Autowired
+    private LikeEntityRepository likeEntityRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LikeCountBuffer likeCountBuffer = mock(LikeCountBuffer.class);
+
+    @Test
+    @DisplayName("like_count 가 Like row 수와 어긋난 포스트를 다시 계산하는 경우")
+    void reconcile_drifted() {
+        Long postId = savePostWithLikes(2, 5);
+
+        new LikeCountReconcileScheduler(postEntityRepository, likeCountBuffer).reconcile();
+
+        verify(likeCountBuffer).flush();
+        Assertions.assertEquals(2L, postEntityRepository.findLikeCountById(postId).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("write-behind 로 아직 반영되지 않은 좋아요가 있는 포스트는 다시 계산하지 않는 경우")
+    void reconcile_skip_pending() {
+        Long settledPostId = savePostWithLikes(2, 5);
+        // Like row 는 3개지만 그 중 1개는 아직 buffer 에 있어서 like_count 에 2 만 반영된 상태
+        Long pendingPostId = savePostWithLikes(3, 2);
+        when(likeCountBuffer.pending(pendingPostId)).thenReturn(1L);
+
+        new LikeCountReconcileScheduler(postEntityRepository, likeCountBuffer).reconcile();
+
+        Assertions.assertEquals(2L, postEntityRepository.findLikeCountById(settledPostId).orElseThrow());
+        Assertions.assertEquals(2L, postEntityRepository.findLikeCountById(pendingPostId).orElseThrow());
+    }
+
+    private Long savePostWithLikes(int likes, long likeCount) {
+        UserEntity author = userEntityRepository.save(UserEntity.of("author" + System.nanoTime(), "password"));
+        PostEntity post = postEntityRepository.saveAndFlush(PostEntity.of("title", "body", author));
+        for (int i = 0; i < likes; i++) {
+            UserEntity user = userEntityRepository.save(UserEntity.of("user" + System.nanoTime(), "password"));
+            likeEntityRepository.save(LikeEntity.of(user, post));
+        }
+        entityManager.flush();
+        postEntityRepository.increaseLikeCount(post.getId(), likeCount);
+        entityManager.clear();
+        return post.getId();
+    }
+}
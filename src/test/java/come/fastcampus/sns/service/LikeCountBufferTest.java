@@ -0,0 +1,44 @@
+package come.fastcampus.sns.service;
+
+import come.fastcampus.sns.repository.PostEntityRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LikeCountBufferTest {
+
+    private final PostEntityRepository postEntityRepository = mock(PostEntityRepository.class);
+    private final LikeCountBuffer likeCountBuffer = new LikeCountBuffer(postEntityRepository, mock(PlatformTransactionManager.class), true);
+
+    @Test
+    @DisplayName("flush 중에도 커밋되기 전까지는 증가분이 pending 으로 조회되는 경우")
+    void pending_visible_until_commit() {
+        likeCountBuffer.increase(1L);
+        likeCountBuffer.increase(1L);
+
+        when(postEntityRepository.increaseLikeCount(eq(1L), anyLong())).thenAnswer(invocation -> {
+            Assertions.assertEquals(2, likeCountBuffer.pending(1L));
+            return 1;
+        });
+        likeCountBuffer.flush();
+
+        Assertions.assertEquals(0, likeCountBuffer.pending(1L));
+    }
+
+    @Test
+    @DisplayName("flush 가 실패하면 증가분이 pending 에 그대로 남는 경우")
+    void pending_kept_on_failure() {
+        likeCountBuffer.increase(1L);
+
+        when(postEntityRepository.increaseLikeCount(eq(1L), anyLong())).thenThrow(new IllegalStateException("db down"));
+        likeCountBuffer.flush();
+
+        Assertions.assertEquals(1, likeCountBuffer.pending(1L));
+    }
+}
@@ -1,65 +1,105 @@
 package come.fastcampus.sns.service;
 
+import come.fastcampus.sns.controller.request.PostCreateRequest;
 import come.fastcampus.sns.exception.ErrorCode;
 import come.fastcampus.sns.exception.SnsApplicationException;
 import come.fastcampus.sns.fixture.PostEntityFixture;
 import come.fastcampus.sns.fixture.UserEntityFixture;
+import come.fastcampus.sns.model.AlarmEvent;
+import come.fastcampus.sns.model.AlarmType;
+import come.fastcampus.sns.model.Post;
 import come.fastcampus.sns.model.entity.PostEntity;
 import come.fastcampus.sns.model.entity.UserEntity;
+import come.fastcampus.sns.repository.LikeEntityRepository;
 import come.fastcampus.sns.repository.PostEntityRepository;
 import come.fastcampus.sns.repository.UserEntityRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
+@RecordApplicationEvents
 class PostServiceTest {
 
     @Autowired
     private PostService postService;
+    @Autowired
+    private ApplicationEvents applicationEvents;
     @MockBean
     private PostEntityRepository postEntityRepository;
     @MockBean
     private UserEntityRepository userEntityRepository;
+    @MockBean
+    private LikeEntityRepository likeEntityRepository;
+    @MockBean
+    private TimelineService timelineService;
 
     @Test
     @DisplayName("포스트 작성 성공한 경우")
     void post_save_success() throws Exception {
         String title = "title";
         String body = "body";
-        String userName = "userName";
+        Long userId = 1L;
 
         // mocking
-        when(userEntityRepository.findByUserName(userName)).thenReturn(Optional.of(mock(UserEntity.class)));
+        when(userEntityRepository.getReferenceById(userId)).thenReturn(mock(UserEntity.class));
         when(postEntityRepository.save(any())).thenReturn(mock(PostEntity.class));
 
-        Assertions.assertDoesNotThrow(() -> postService.create(title, body, userName));
+        Assertions.assertDoesNotThrow(() -> postService.create(title, body, userId));
     }
 
     @Test
-    @DisplayName("포스트 작성시 요청한 유저가 존재하지 않은 경우")
-    void post_save_failure() throws Exception {
-        String title = "title";
-        String body = "body";
-        String userName = "userName";
+    @DisplayName("포스트 작성시 요청한 유저를 다시 조회하지 않는 경우")
+    void post_save_without_user_select() throws Exception {
+        Long userId = 1L;
 
         // mocking
-        when(userEntityRepository.findByUserName(userName)).thenReturn(Optional.empty());
+        when(userEntityRepository.getReferenceById(userId)).thenReturn(mock(UserEntity.class));
         when(postEntityRepository.save(any())).thenReturn(mock(PostEntity.class));
 
-        SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class, () -> postService.create(title, body, userName));
-        Assertions.assertEquals(ErrorCode.USER_NOT_FOUND, e.getErrorCode());
+        postService.create("title", "body", userId);
+
+        verify(userEntityRepository, never()).findByUserName(any());
+        verify(userEntityRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("포스트 여러개 작성시 개수가 1 ~ 1000 개를 벗어나는 경우")
+    void post_bulk_save_failure_size() throws Exception {
+        List<PostCreateRequest> tooMany = IntStream.range(0, 1001)
+                .mapToObj(i -> new PostCreateRequest("title" + i, "body"))
+                .collect(Collectors.toList());
+
+        SnsApplicationException empty = Assertions.assertThrows(SnsApplicationException.class,
+                () -> postService.createAll(List.of(), 1L));
+        SnsApplicationException exceeded = Assertions.assertThrows(SnsApplicationException.class,
+                () -> postService.createAll(tooMany, 1L));
+
+        Assertions.assertEquals(ErrorCode.INVALID_REQUEST, empty.getErrorCode());
+        Assertions.assertEquals(ErrorCode.INVALID_REQUEST, exceeded.getErrorCode());
+        verify(userEntityRepository, never()).getReferenceById(any());
     }
 
     @Test
@@ -68,17 +108,15 @@ class PostServiceTest {
         String title = "title";
         String body = "body";
         String userName = "userName";
-        Integer postId = 1;
+        Long postId = 1L;
 
-        PostEntity postEntity = PostEntityFixture.get(userName, postId, 1);
-        UserEntity userEntity = postEntity.getUser();
+        PostEntity postEntity = PostEntityFixture.get(userName, postId, 1L);
 
         // mocking
-        when(userEntityRepository.findByUserName(userName)).thenReturn(Optional.of(userEntity));
         when(postEntityRepository.findById(postId)).thenReturn(Optional.of(postEntity));
         when(postEntityRepository.saveAndFlush(any())).thenReturn(postEntity);
 
-        Assertions.assertDoesNotThrow(() -> postService.modify(title, body, userName, postId));
+        Assertions.assertDoesNotThrow(() -> postService.modify(title, body, 1L, postId));
     }
 
     @Test
@@ -86,18 +124,13 @@ class PostServiceTest {
     void post_modify_failure() throws Exception {
         String title = "title";
         String body = "body";
-        String userName = "userName";
-        Integer postId = 1;
-
-        PostEntity postEntity = PostEntityFixture.get(userName, postId, 1);
-        UserEntity userEntity = postEntity.getUser();
+        Long postId = 1L;
 
         // mocking
-        when(userEntityRepository.findByUserName(userName)).thenReturn(Optional.of(userEntity));
         when(postEntityRepository.findById(postId)).thenReturn(Optional.empty());
 
         SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class,
-                () -> postService.modify(title, body, userName, postId));
+                () -> postService.modify(title, body, 1L, postId));
         Assertions.assertEquals(ErrorCode.POST_NOT_FOUND, e.getErrorCode());
     }
 
@@ -107,17 +140,15 @@ class PostServiceTest {
         String title = "title";
         String body = "body";
         String userName = "userName";
-        Integer postId = 1;
+        Long postId = 1L;
 
-        PostEntity postEntity = PostEntityFixture.get(userName, postId, 1);
-        UserEntity writer = UserEntityFixture.get("userName1", "password", 2);
+        PostEntity postEntity = PostEntityFixture.get(userName, postId, 1L);
 
         // mocking
-        when(userEntityRepository.findByUserName(userName)).thenReturn(Optional.of(writer));
         when(postEntityRepository.findById(postId)).thenReturn(Optional.of(postEntity));
 
         SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class,
-                () -> postService.modify(title, body, userName, postId));
+                () -> postService.modify(title, body, 2L, postId));
         Assertions.assertEquals(ErrorCode.INVALID_PERMISSION, e.getErrorCode());
     }
 
@@ -125,34 +156,27 @@ class PostServiceTest {
     @DisplayName("포스트 삭제가 성공한 경우")
     void post_delete_success() throws Exception {
         String userName = "userName";
-        Integer postId = 1;
+        Long postId = 1L;
 
-        PostEntity postEntity = PostEntityFixture.get(userName, postId, 1);
-        UserEntity userEntity = postEntity.getUser();
+        PostEntity postEntity = PostEntityFixture.get(userName, postId, 1L);
 
         // mocking
-        when(userEntityRepository.findByUserName(userName)).thenReturn(Optional.of(userEntity));
         when(postEntityRepository.findById(postId)).thenReturn(Optional.of(postEntity));
 
 
-        Assertions.assertDoesNotThrow(() -> postService.delete(userName, 1));
+        Assertions.assertDoesNotThrow(() -> postService.delete(1L, 1L));
     }
 
     @Test
     @DisplayName("포스트 삭제시 - 포스트가 존재하지 않는 경우")
     void post_delete_failure() throws Exception {
-        String userName = "userName";
-        Integer postId = 1;
-
-        PostEntity postEntity = PostEntityFixture.get(userName, postId, 1);
-        UserEntity userEntity = postEntity.getUser();
+        Long postId = 1L;
 
         // mocking
-        when(userEntityRepository.findByUserName(userName)).thenReturn(Optional.of(userEntity));
         when(postEntityRepository.findById(postId)).thenReturn(Optional.empty());
 
         SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class,
-                () -> postService.delete(userName, 1));
+                () -> postService.delete(1L, 1L));
         Assertions.assertEquals(ErrorCode.POST_NOT_FOUND, e.getErrorCode());
     }
 
@@ -160,17 +184,15 @@ class PostServiceTest {
     @DisplayName("포스트 삭제시 - 권한이 없는 경우")
     void post_delete_failure_2() throws Exception {
         String userName = "userName";
-        Integer postId = 1;
+        Long postId = 1L;
 
-        PostEntity postEntity = PostEntityFixture.get(userName, postId, 1);
-        UserEntity writer = UserEntityFixture.get("userName1", "password", 2);
+        PostEntity postEntity = PostEntityFixture.get(userName, postId, 1L);
 
         // mocking
-        when(userEntityRepository.findByUserName(userName)).thenReturn(Optional.of(writer));
         when(postEntityRepository.findById(postId)).thenReturn(Optional.of(postEntity));
 
         SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class,
-                () -> postService.delete(userName, 1));
+                () -> postService.delete(2L, 1L));
         Assertions.assertEquals(ErrorCode.INVALID_PERMISSION, e.getErrorCode());
     }
 
@@ -179,7 +201,7 @@ class PostServiceTest {
     void post_feed_success() throws Exception {
         // mocking
         Pageable pageable = mock(Pageable.class);
-        when(postEntityRepository.findAll(pageable)).thenReturn(Page.empty());
+        when(postEntityRepository.findAllWithUser(pageable)).thenReturn(Page.empty());
         Assertions.assertDoesNotThrow(() -> postService.list(pageable));
     }
 
@@ -189,8 +211,120 @@ class PostServiceTest {
         // mocking
         Pageable pageable = mock(Pageable.class);
         UserEntity user = mock(UserEntity.class);
-        when(userEntityRepository.findByUserName(any())).thenReturn(Optional.of(user));
-        when(postEntityRepository.findAllByUser(user, pageable)).thenReturn(Page.empty());
-        Assertions.assertDoesNotThrow(() -> postService.my("", pageable));
+        when(userEntityRepository.getReferenceById(1L)).thenReturn(user);
+        when(postEntityRepository.findAllWithUserByUser(user, pageable)).thenReturn(Page.empty());
+        Assertions.assertDoesNotThrow(() -> postService.my(1L, pageable));
+    }
+
+    @Test
+    @DisplayName("댓글 cursor 페이징시 포스트가 존재하지 않는 경우")
+    void comment_scroll_failure() throws Exception {
+        Long postId = 1L;
+
+        // mocking
+        when(postEntityRepository.existsById(postId)).thenReturn(false);
+
+        SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class,
+                () -> postService.scrollComments(postId, null, 20));
+        Assertions.assertEquals(ErrorCode.POST_NOT_FOUND, e.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("좋아요 수 조회시 post 의 like_count 를 반환하는 경우")
+    void like_count_success() throws Exception {
+        Long postId = 1L;
+
+        // mocking
+        when(postEntityRepository.findLikeCountById(postId)).thenReturn(Optional.of(3L));
+
+        Assertions.assertEquals(3L, postService.likeCount(postId));
+    }
+
+    @Test
+    @DisplayName("좋아요가 성공하면 포스트 작성자에게 알람 이벤트를 발행하는 경우")
+    void like_success() throws Exception {
+        Long postId = 1L;
+
+        PostEntity postEntity = PostEntityFixture.get("writer", postId, 1L);
+        UserEntity userEntity = UserEntityFixture.get("userName", "password", 2L);
+
+        // mocking
+        when(postEntityRepository.findById(postId)).thenReturn(Optional.of(postEntity));
+        when(userEntityRepository.getReferenceById(2L)).thenReturn(userEntity);
+
+        Assertions.assertDoesNotThrow(() -> postService.like(postId, 2L));
+
+        AlarmEvent event = applicationEvents.stream(AlarmEvent.class).findFirst().orElseThrow();
+        Assertions.assertEquals(1L, event.getReceiverUserId());
+        Assertions.assertEquals(AlarmType.NEW_LIKE_ON_POST, event.getAlarmType());
+        Assertions.assertEquals(2L, event.getArgs().getFromUserId());
+    }
+
+    @Test
+    @DisplayName("좋아요시 이미 좋아요 한 포스트인 경우")
+    void like_failure_already_liked() throws Exception {
+        String userName = "userName";
+        Long postId = 1L;
+
+        PostEntity postEntity = PostEntityFixture.get(userName, postId, 1L);
+        UserEntity userEntity = postEntity.getUser();
+
+        // mocking
+        when(postEntityRepository.findById(postId)).thenReturn(Optional.of(postEntity));
+        when(userEntityRepository.getReferenceById(1L)).thenReturn(userEntity);
+        when(likeEntityRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("user_id_post_id_uk"));
+
+        SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class,
+                () -> postService.like(postId, 1L));
+        Assertions.assertEquals(ErrorCode.ALREADY_LIKED, e.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("좋아요시 unique index 가 아닌 제약조건 위반은 그대로 던지는 경우")
+    void like_failure_other_constraint() throws Exception {
+        Long postId = 1L;
+        PostEntity postEntity = PostEntityFixture.get("userName", postId, 1L);
+
+        // mocking (삭제된 유저 -> FK 위반)
+        when(postEntityRepository.findById(postId)).thenReturn(Optional.of(postEntity));
+        when(userEntityRepository.getReferenceById(2L)).thenReturn(UserEntityFixture.get("deleted", "password", 2L));
+        when(likeEntityRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("fk",
+                new ConstraintViolationException("Cannot add or update a child row", null, "fk_like_user_id")));
+
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> postService.like(postId, 2L));
+    }
+
+    @Test
+    @DisplayName("타임라인 조회시 타임라인 순서대로 삭제되지 않은 포스트만 반환하는 경우")
+    void timeline_success() throws Exception {
+        PostEntity newer = PostEntityFixture.get("writer", 3L, 2L);
+
+        // mocking (2번 포스트는 삭제됨)
+        when(timelineService.postIds(1L, Long.MAX_VALUE, 3)).thenReturn(List.of(3L, 2L, 1L));
+        when(postEntityRepository.findAllWithUserByIdIn(any())).thenReturn(List.of(newer));
+
+        Slice<Post> timeline = postService.timeline(1L, null, 2);
+
+        Assertions.assertEquals(List.of(3L), timeline.map(Post::getId).getContent());
+        Assertions.assertTrue(timeline.hasNext());
+    }
+
+    @Test
+    @DisplayName("포스트 단건 조회는 캐싱되고, 수정하면 다시 조회하는 경우")
+    void post_get_cached() throws Exception {
+        Long postId = 100L;
+        PostEntity postEntity = PostEntityFixture.get("userName", postId, 1L);
+
+        // mocking
+        when(postEntityRepository.findById(postId)).thenReturn(Optional.of(postEntity));
+        when(postEntityRepository.saveAndFlush(any())).thenReturn(postEntity);
+
+        postService.get(postId);
+        postService.get(postId);
+        verify(postEntityRepository, times(1)).findById(postId);
+
+        postService.modify("title", "body", 1L, postId);
+        postService.get(postId);
+        verify(postEntityRepository, times(3)).findById(postId);
     }
 }
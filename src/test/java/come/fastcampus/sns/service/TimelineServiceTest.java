@@ -0,0 +1,196 @@
+package come.fastcampus.sns.service;
+
+import come.fastcampus.sns.model.PostCreatedEvent;
+import come.fastcampus.sns.repository.FollowEntityRepository;
+import come.fastcampus.sns.repository.PostEntityRepository;
+import come.fastcampus.sns.repository.TimelineCacheRepository;
+import come.fastcampus.sns.repository.TimelineEntityRepository;
+import come.fastcampus.sns.repository.UserEntityRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// fan-out 은 별도 스레드에서 커밋되므로 테스트마다 겹치지 않는 유저, 포스트 id 를 쓴다.
+@SpringBootTest
+class TimelineServiceTest {
+
+    private static final long FOLLOWER_THRESHOLD = 10_000L;
+
+    @Autowired
+    private TimelineService timelineService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @SpyBean
+    private TimelineCacheRepository timelineCacheRepository;
+    @MockBean
+    private FollowEntityRepository followEntityRepository;
+    @MockBean
+    private TimelineEntityRepository timelineEntityRepository;
+    @MockBean
+    private PostEntityRepository postEntityRepository;
+    @MockBean
+    private UserEntityRepository userEntityRepository;
+
+    @Test
+    @DisplayName("포스트 작성시 작성자와 팔로워 타임라인에 넣고 active 유저의 buffer 에도 넣는 경우")
+    void fanout_success() {
+        Long authorId = 100L;
+        Long followerId = 101L;
+        Long postId = 1_000L;
+
+        // mocking
+        when(userEntityRepository.findFollowerCountById(authorId)).thenReturn(Optional.of(2L));
+        when(followEntityRepository.findFollowerIdsByFollowingId(authorId)).thenReturn(List.of(followerId, 102L));
+        when(timelineEntityRepository.findPostIdsByUserId(eq(followerId), any(), any())).thenReturn(List.of());
+
+        // 팔로워는 타임라인을 한번 읽어서 active 상태
+        Assertions.assertEquals(List.of(), timelineService.postIds(followerId, Long.MAX_VALUE, 10));
+
+        timelineService.onPostCreated(new PostCreatedEvent(postId, authorId));
+
+        verify(timelineCacheRepository, timeout(1_000)).push(authorId, postId);
+        Assertions.assertEquals(List.of(100L, 101L, 102L), receivers(postId));
+        Assertions.assertEquals(List.of(postId), timelineService.postIds(followerId, Long.MAX_VALUE, 10));
+        // buffer 에서 읽고 테이블은 다시 읽지 않는다.
+        verify(timelineEntityRepository, times(1)).findPostIdsByUserId(eq(followerId), any(), any());
+    }
+
+    @Test
+    @DisplayName("이미 타임라인에 있는 포스트를 다시 fan-out 하면 중복 row 만 건너뛰는 경우")
+    void fanout_duplicated() {
+        Long authorId = 110L;
+        Long postId = 1_100L;
+        insertTimeline(111L, postId, authorId);
+
+        // mocking
+        when(userEntityRepository.findFollowerCountById(authorId)).thenReturn(Optional.of(2L));
+        when(followEntityRepository.findFollowerIdsByFollowingId(authorId)).thenReturn(List.of(111L, 112L));
+
+        timelineService.onPostCreated(new PostCreatedEvent(postId, authorId));
+
+        // insert 가 실패하면 push 까지 가지 않는다.
+        verify(timelineCacheRepository, timeout(1_000)).push(authorId, postId);
+        Assertions.assertEquals(List.of(110L, 111L, 112L), receivers(postId));
+    }
+
+    @Test
+    @DisplayName("팔로워가 threshold 이상인 작성자의 포스트는 팔로워에게 fan-out 하지 않고 작성자 타임라인에만 넣는 경우")
+    void fanout_pull_author() {
+        Long authorId = 120L;
+        Long postId = 1_200L;
+
+        // mocking
+        when(userEntityRepository.findFollowerCountById(authorId)).thenReturn(Optional.of(FOLLOWER_THRESHOLD));
+
+        timelineService.onPostCreated(new PostCreatedEvent(postId, authorId));
+
+        verify(timelineCacheRepository, timeout(1_000)).push(authorId, postId);
+        verify(timelineCacheRepository).evictAuthorPostIds(authorId);
+        verify(followEntityRepository, never()).findFollowerIdsByFollowingId(anyLong());
+        Assertions.assertEquals(List.of(authorId), receivers(postId));
+    }
+
+    @Test
+    @DisplayName("팔로우시 팔로우한 유저의 최근 포스트를 타임라인에 채우고 이미 있는 포스트는 건너뛰는 경우")
+    void follow_backfill() {
+        Long userId = 130L;
+        Long followingId = 131L;
+        insertTimeline(userId, 1_302L, followingId);
+
+        // mocking
+        when(postEntityRepository.findIdsByUserId(eq(followingId), any(), any())).thenReturn(List.of(1_303L, 1_302L, 1_301L));
+
+        Assertions.assertDoesNotThrow(() -> timelineService.follow(userId, followingId, 1L));
+
+        Assertions.assertEquals(List.of(1_301L, 1_302L, 1_303L), postIdsOf(userId));
+        verify(timelineCacheRepository).evict(userId);
+    }
+
+    @Test
+    @DisplayName("팔로워가 threshold 이상인 유저를 팔로우하면 타임라인을 채우지 않는 경우")
+    void follow_pull_author() {
+        Long userId = 140L;
+
+        timelineService.follow(userId, 141L, FOLLOWER_THRESHOLD);
+
+        verify(postEntityRepository, never()).findIdsByUserId(anyLong(), any(), any());
+        Assertions.assertEquals(List.of(), postIdsOf(userId));
+        verify(timelineCacheRepository).evict(userId);
+    }
+
+    @Test
+    @DisplayName("언팔로우시 그 유저의 포스트를 타임라인에서 지우고 메모리 타임라인도 지우는 경우")
+    void unfollow_success() {
+        Long userId = 150L;
+        Long followingId = 151L;
+
+        // mocking
+        when(timelineEntityRepository.findPostIdsByUserId(eq(userId), any(), any())).thenReturn(List.of(1_500L));
+
+        timelineService.postIds(userId, Long.MAX_VALUE, 10);
+        Assertions.assertTrue(timelineCacheRepository.contains(userId));
+
+        timelineService.unfollow(userId, followingId);
+
+        verify(timelineEntityRepository).deleteAllByUserIdAndAuthorId(userId, followingId);
+        Assertions.assertFalse(timelineCacheRepository.contains(userId));
+    }
+
+    @Test
+    @DisplayName("팔로워가 threshold 이상인 작성자의 포스트는 조회시 가져와서 push 된 타임라인과 합치는 경우")
+    void postIds_pull_author() {
+        Long userId = 160L;
+        Long pullAuthorId = 161L;
+
+        // mocking
+        when(followEntityRepository.findFollowingIdsByFollowerCountAtLeast(userId, FOLLOWER_THRESHOLD)).thenReturn(List.of(pullAuthorId));
+        when(timelineEntityRepository.findPostIdsByUserId(eq(userId), any(), any())).thenReturn(List.of(1_605L, 1_603L));
+        when(postEntityRepository.findIdsByUserId(eq(pullAuthorId), any(), any())).thenReturn(List.of(1_606L, 1_604L, 1_601L));
+
+        Assertions.assertEquals(List.of(1_606L, 1_605L, 1_604L, 1_603L), timelineService.postIds(userId, Long.MAX_VALUE, 4));
+        Assertions.assertEquals(List.of(1_603L, 1_601L), timelineService.postIds(userId, 1_604L, 4));
+        // 작성자의 최근 포스트는 캐싱해서 다음 페이지에서 다시 읽지 않는다.
+        verify(postEntityRepository, times(1)).findIdsByUserId(eq(pullAuthorId), any(), any());
+    }
+
+    @Test
+    @DisplayName("push 된 타임라인과 pull 한 작성자 포스트를 id 역순으로 합치는 경우")
+    void merge_success() {
+        List<Long> merged = TimelineService.merge(List.of(
+                List.of(10L, 7L, 3L),
+                List.of(9L, 7L, 2L),
+                List.of(),
+                List.of(8L, 1L)), 5);
+
+        Assertions.assertEquals(List.of(10L, 9L, 8L, 7L, 3L), merged);
+    }
+
+    private void insertTimeline(Long userId, Long postId, Long authorId) {
+        jdbcTemplate.update("INSERT INTO \"timeline\" (user_id, post_id, author_id, registered_at) VALUES (?, ?, ?, CURRENT_TIMESTAMP)", userId, postId, authorId);
+    }
+
+    private List<Long> receivers(Long postId) {
+        return jdbcTemplate.queryForList("SELECT user_id FROM \"timeline\" WHERE post_id = ? ORDER BY user_id", Long.class, postId);
+    }
+
+    private List<Long> postIdsOf(Long userId) {
+        return jdbcTemplate.queryForList("SELECT post_id FROM \"timeline\" WHERE user_id = ? ORDER BY post_id", Long.class, userId);
+    }
+}
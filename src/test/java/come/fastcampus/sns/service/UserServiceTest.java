@@ -4,18 +4,25 @@ import come.fastcampus.sns.exception.ErrorCode;
 import come.fastcampus.sns.exception.SnsApplicationException;
 import come.fastcampus.sns.fixture.UserEntityFixture;
 import come.fastcampus.sns.model.entity.UserEntity;
+import come.fastcampus.sns.repository.AlarmEntityRepository;
 import come.fastcampus.sns.repository.UserEntityRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -26,6 +33,8 @@ class UserServiceTest {
     @MockBean
     private UserEntityRepository userEntityRepository;
     @MockBean
+    private AlarmEntityRepository alarmEntityRepository;
+    @MockBean
     private BCryptPasswordEncoder encoder;
 
 
@@ -36,9 +45,8 @@ class UserServiceTest {
         String password = "password";
 
         // mocking
-        when(userEntityRepository.findByUserName(userName)).thenReturn(Optional.empty());
         when(encoder.encode(password)).thenReturn("encrypt_password");
-        when(userEntityRepository.save(any())).thenReturn(UserEntityFixture.get(userName, password, 1));
+        when(userEntityRepository.saveAndFlush(any())).thenReturn(UserEntityFixture.get(userName, password, 1L));
 
         Assertions.assertDoesNotThrow(() -> userService.join(userName, password));
     }
@@ -48,12 +56,11 @@ class UserServiceTest {
     void signUp_test_failure() throws Exception {
         String userName = "userName";
         String password = "password";
-        UserEntity fixture = UserEntityFixture.get(userName, password, 1);
 
         // mocking
-        when(userEntityRepository.findByUserName(userName)).thenReturn(Optional.of(fixture));
         when(encoder.encode(password)).thenReturn("encrypt_password");
-        when(userEntityRepository.save(any())).thenReturn(Optional.of(fixture));
+        when(userEntityRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicated",
+                new ConstraintViolationException("Duplicate entry", null, UserEntity.USER_NAME_UK)));
 
         SnsApplicationException e = Assertions.assertThrows(SnsApplicationException.class,
                 () -> userService.join(userName, password));
@@ -61,6 +68,28 @@ class UserServiceTest {
         Assertions.assertEquals(ErrorCode.DUPLICATED_USER_NAME, e.getErrorCode());
     }
 
+    @DisplayName("회원가입시 userName unique index 가 아닌 제약조건 위반은 그대로 던지고 필터에 넣지 않는 경우")
+    @Test
+    void signUp_test_failure_other_constraint() throws Exception {
+        String userName = "tooLongUserName";
+        String password = "password";
+
+        // mocking (컬럼 길이 초과 등)
+        when(encoder.encode(password)).thenReturn("encrypt_password");
+        when(userEntityRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("too long",
+                new ConstraintViolationException("Value too long for column", null, null)));
+
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> userService.join(userName, password));
+        Assertions.assertTrue(userService.isUserNameAvailable(userName));
+    }
+
+    @DisplayName("가입한 적 없는 userName 의 가입 가능 여부는 DB 를 조회하지 않는 경우")
+    @Test
+    void userNameAvailable_test_filtered() throws Exception {
+        Assertions.assertTrue(userService.isUserNameAvailable("neverJoinedUserName"));
+        verify(userEntityRepository, never()).countByUserNameIncludingDeleted(any());
+    }
+
     @DisplayName("로그인이 정상적으로 동작하는 경우")
     @Test
     void login_test_success() throws Exception {
@@ -68,7 +97,7 @@ class UserServiceTest {
         String password = "password";
 
         // TEST용 ENTITY
-        UserEntity fixture = UserEntityFixture.get(userName, password, 1);
+        UserEntity fixture = UserEntityFixture.get(userName, password, 1L);
 
         // mocking
         when(userEntityRepository.findByUserName(userName)).thenReturn(Optional.of(fixture));
@@ -77,6 +106,52 @@ class UserServiceTest {
         Assertions.assertDoesNotThrow(() -> userService.login(userName, password));
     }
 
+    @DisplayName("로그인시 이전 strength 로 저장된 비밀번호는 다시 해싱해서 저장한다")
+    @Test
+    void login_test_rehash() throws Exception {
+        String userName = "userName";
+        String password = "password";
+        UserEntity fixture = UserEntityFixture.get(userName, password, 1L);
+
+        // mocking
+        when(userEntityRepository.findByUserName(userName)).thenReturn(Optional.of(fixture));
+        when(encoder.matches(password, fixture.getPassword())).thenReturn(true);
+        when(encoder.upgradeEncoding(fixture.getPassword())).thenReturn(true);
+        when(encoder.encode(password)).thenReturn("rehashed_password");
+
+        Assertions.assertDoesNotThrow(() -> userService.login(userName, password));
+        verify(userEntityRepository, times(1)).updatePassword(1L, "rehashed_password");
+    }
+
+    @DisplayName("회원가입 / 로그인은 해싱하는 동안 트랜잭션 (DB 커넥션) 을 잡고 있지 않는 경우")
+    @Test
+    void join_login_test_no_transaction() throws Exception {
+        String userName = "userName";
+        String password = "password";
+        UserEntity fixture = UserEntityFixture.get(userName, password, 1L);
+
+        // mocking : repository 를 부를 때 바깥 트랜잭션이 없어야 한다. (repository 는 자기 트랜잭션을 연다)
+        when(encoder.encode(password)).thenReturn("rehashed_password");
+        when(userEntityRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            Assertions.assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            return fixture;
+        });
+        when(userEntityRepository.findByUserName(userName)).thenAnswer(invocation -> {
+            Assertions.assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            return Optional.of(fixture);
+        });
+        when(encoder.matches(password, fixture.getPassword())).thenReturn(true);
+        when(encoder.upgradeEncoding(fixture.getPassword())).thenReturn(true);
+        when(userEntityRepository.updatePassword(1L, "rehashed_password")).thenAnswer(invocation -> {
+            Assertions.assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            return 1;
+        });
+
+        Assertions.assertDoesNotThrow(() -> userService.join(userName, password));
+        Assertions.assertDoesNotThrow(() -> userService.login(userName, password));
+        verify(userEntityRepository, times(1)).updatePassword(1L, "rehashed_password");
+    }
+
     @DisplayName("로그인시 userName으로 회원가입한 유저가 없는 경우")
     @Test
     void signUp_test_failure_1() throws Exception {
@@ -97,7 +172,7 @@ class UserServiceTest {
         String userName = "userName";
         String password = "password";
         String wrongPassword = "wrongPassword";
-        UserEntity fixture = UserEntityFixture.get(userName, password, 1);
+        UserEntity fixture = UserEntityFixture.get(userName, password, 1L);
 
         // mocking
         when(userEntityRepository.findByUserName(userName)).thenReturn(Optional.of(fixture));
@@ -106,4 +181,39 @@ class UserServiceTest {
                 () -> userService.login(userName, wrongPassword));
         Assertions.assertEquals(ErrorCode.INVALID_PASSWORD, e.getErrorCode());
     }
-}
\ No newline at end of file
+
+    @DisplayName("인증된 유저 조회시 두번째 요청부터는 캐시에서 조회하는 경우")
+    @Test
+    void loadUser_test_cached() throws Exception {
+        String userName = "cachedUserName";
+        UserEntity fixture = UserEntityFixture.get(userName, "password", 1L);
+
+        // mocking
+        when(userEntityRepository.findByUserName(userName)).thenReturn(Optional.of(fixture));
+
+        userService.loadUserByUserName(userName);
+        userService.loadUserByUserName(userName);
+
+        verify(userEntityRepository, times(1)).findByUserName(userName);
+    }
+
+    @DisplayName("안 읽은 알람 수는 한번만 조회하고, 읽음 처리하면 0이 되는 경우")
+    @Test
+    void unreadAlarmCount_test_read() throws Exception {
+        Long userId = 100L;
+
+        // mocking
+        when(userEntityRepository.findLastReadAlarmIdById(userId)).thenReturn(3L);
+        when(alarmEntityRepository.countByUserIdAndIdGreaterThan(userId, 3L)).thenReturn(2L);
+        when(alarmEntityRepository.findMaxIdByUserId(userId)).thenReturn(5L);
+
+        Assertions.assertEquals(2, userService.unreadAlarmCount(userId));
+        Assertions.assertEquals(2, userService.unreadAlarmCount(userId));
+        verify(alarmEntityRepository, times(1)).countByUserIdAndIdGreaterThan(userId, 3L);
+
+        userService.readAlarms(userId);
+
+        verify(userEntityRepository).updateLastReadAlarmId(userId, 5L);
+        Assertions.assertEquals(0, userService.unreadAlarmCount(userId));
+    }
+}
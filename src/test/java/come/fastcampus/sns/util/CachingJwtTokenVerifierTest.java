@@ -0,0 +1,103 @@
+package come.fastcampus.sns.util;
+
+import come.fastcampus.sns.configuration.AuthenticationConfig;
+import come.fastcampus.sns.model.TokenClaims;
+import come.fastcampus.sns.service.UserService;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.Mockito.mock;
+
+class CachingJwtTokenVerifierTest {
+
+    private static final String KEY = "fast_campus.sns-application-2022.secret_key";
+    private static final String OTHER_KEY = "other.sns-application-2022.other_secret_key";
+    private static final long MAXIMUM_BYTES = 1024 * 1024;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CachingJwtTokenVerifier verifier = new CachingJwtTokenVerifier(KEY, MAXIMUM_BYTES, meterRegistry);
+
+    @Test
+    @DisplayName("검증된 토큰을 다시 검증하면 캐시에서 꺼내는 경우")
+    void verify_cache_hit() {
+        String token = JwtTokenUtils.generateToken("userName", KEY, 60_000);
+
+        TokenClaims first = verifier.verify(token);
+        TokenClaims second = verifier.verify(token);
+
+        Assertions.assertEquals("userName", second.getUserName());
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, hitCount());
+        Assertions.assertEquals(1, missCount());
+    }
+
+    @Test
+    @DisplayName("검증에 실패한 토큰은 캐싱하지 않아 매번 다시 검증하고 실패하는 경우")
+    void verify_failure_not_cached() {
+        String otherKeyToken = JwtTokenUtils.generateToken("userName", OTHER_KEY, 60_000);
+        String expiredToken = JwtTokenUtils.generateToken("userName", KEY, -60_000);
+
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThrows(SignatureException.class, () -> verifier.verify(otherKeyToken));
+            Assertions.assertThrows(ExpiredJwtException.class, () -> verifier.verify(expiredToken));
+        }
+
+        Assertions.assertEquals(0, hitCount());
+        Assertions.assertEquals(4, missCount());
+        Assertions.assertEquals(0, meterRegistry.get("cache.size").tag("cache", "verified-token").gauge().value());
+    }
+
+    @Test
+    @DisplayName("캐싱된 토큰이 고정 TTL 이 아니라 토큰의 exp 시점에 만료되는 경우")
+    void verify_expire_at_exp() throws InterruptedException {
+        String shortToken = JwtTokenUtils.generateToken("shortUser", KEY, 2_000);
+        String longToken = JwtTokenUtils.generateToken("longUser", KEY, 60_000);
+
+        TokenClaims claims = verifier.verify(shortToken);
+        verifier.verify(longToken);
+        verifier.verify(shortToken);
+        Assertions.assertEquals(1, hitCount());
+
+        // exp 는 초 단위로 잘리므로 claim 의 exp 를 기준으로 기다린다.
+        Thread.sleep(Math.max(claims.getExpiredAt().getTime() - System.currentTimeMillis(), 0) + 200);
+
+        // exp 가 지난 토큰은 캐시에서 빠져서 다시 검증하고 만료로 실패한다.
+        Assertions.assertThrows(ExpiredJwtException.class, () -> verifier.verify(shortToken));
+        // exp 가 남은 토큰은 그대로 캐시에서 꺼낸다.
+        Assertions.assertEquals("longUser", verifier.verify(longToken).getUserName());
+        Assertions.assertEquals(2, hitCount());
+    }
+
+    @Test
+    @DisplayName("jwt.verified-token-cache.enabled=false 면 캐싱하지 않는 verifier 로 매번 검증하는 경우")
+    void verify_cache_disabled() {
+        AuthenticationConfig authenticationConfig = new AuthenticationConfig(mock(UserService.class));
+        ReflectionTestUtils.setField(authenticationConfig, "key", KEY);
+        ReflectionTestUtils.setField(authenticationConfig, "verifiedTokenCacheEnabled", false);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        JwtTokenVerifier jwtTokenVerifier = authenticationConfig.jwtTokenVerifier(registry);
+        String token = JwtTokenUtils.generateToken("userName", KEY, 60_000);
+
+        Assertions.assertFalse(jwtTokenVerifier instanceof CachingJwtTokenVerifier);
+        Assertions.assertNotSame(jwtTokenVerifier.verify(token), jwtTokenVerifier.verify(token));
+        Assertions.assertNull(registry.find("cache.gets").tag("cache", "verified-token").functionCounter());
+
+        ReflectionTestUtils.setField(authenticationConfig, "verifiedTokenCacheEnabled", true);
+        ReflectionTestUtils.setField(authenticationConfig, "verifiedTokenCacheMaximumBytes", MAXIMUM_BYTES);
+        Assertions.assertTrue(authenticationConfig.jwtTokenVerifier(registry) instanceof CachingJwtTokenVerifier);
+    }
+
+    private double hitCount() {
+        return meterRegistry.get("cache.gets").tag("cache", "verified-token").tag("result", "hit").functionCounter().count();
+    }
+
+    private double missCount() {
+        return meterRegistry.get("cache.gets").tag("cache", "verified-token").tag("result", "miss").functionCounter().count();
+    }
+}
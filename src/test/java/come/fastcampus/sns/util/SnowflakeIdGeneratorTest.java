@@ -0,0 +1,27 @@
+package come.fastcampus.sns.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    @DisplayName("같은 ms 에 sequence 를 넘겨서 생성해도 id 가 항상 증가하는 경우")
+    void nextId_increasing() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+
+        long last = generator.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            long id = generator.nextId();
+            Assertions.assertTrue(id > last);
+            last = id;
+        }
+    }
+
+    @Test
+    @DisplayName("worker id 가 범위를 벗어난 경우")
+    void workerId_out_of_range() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKER_ID + 1));
+    }
+}